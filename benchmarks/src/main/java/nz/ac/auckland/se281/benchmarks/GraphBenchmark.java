@@ -0,0 +1,155 @@
+package nz.ac.auckland.se281.benchmarks;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import nz.ac.auckland.se281.datastructures.BreadthFirstLevels;
+import nz.ac.auckland.se281.datastructures.Edge;
+import nz.ac.auckland.se281.datastructures.Graph;
+import nz.ac.auckland.se281.datastructures.GraphAnalysis;
+import nz.ac.auckland.se281.datastructures.Traversal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks every query on {@link Graph}, over each {@link Shape} of graph. A graph remembers
+ * what it has already computed, so the queries that it caches are each made on a new graph built
+ * in the benchmark itself, and the time of {@link #construct()} should be taken away from theirs.
+ * The searches that are not cached share one graph for each iteration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GraphBenchmark {
+
+  @Param({"CHAIN", "STAR", "CLIQUE", "RANDOM_SPARSE", "POWER_LAW", "EQUIVALENCE"})
+  private Shape shape;
+
+  @Param({"1000", "100000"})
+  private int edges;
+
+  private Set<String> verticies;
+  private Set<Edge<String>> edgeSet;
+  private String vertex;
+  private Graph<String> graph;
+
+  /** Generates the verticies and edges once for each shape and size. */
+  @Setup(Level.Trial)
+  public void generate() {
+    Graph<String> generated = shape.generate(edges).toGraph();
+    verticies = new LinkedHashSet<>(generated.vertexSet());
+    edgeSet = new LinkedHashSet<>(generated.edgeSet());
+
+    // A vertex in the middle, so its equivalence class is not a special case at either end.
+    vertex = String.valueOf(verticies.size() / 2);
+  }
+
+  /** Builds the graph shared by the searches that are not cached, before each iteration. */
+  @Setup(Level.Iteration)
+  public void build() {
+    graph = new Graph<>(verticies, edgeSet);
+  }
+
+  /**
+   * Builds a new graph, with nothing computed yet, for a query that the graph caches.
+   *
+   * @return the new graph.
+   */
+  private Graph<String> fresh() {
+    return new Graph<>(verticies, edgeSet);
+  }
+
+  @Benchmark
+  public Graph<String> construct() {
+    return new Graph<>(verticies, edgeSet);
+  }
+
+  @Benchmark
+  public Set<String> getRoots() {
+    return fresh().getRoots();
+  }
+
+  @Benchmark
+  public boolean isReflexive() {
+    return fresh().isReflexive();
+  }
+
+  @Benchmark
+  public boolean isSymmetric() {
+    return fresh().isSymmetric();
+  }
+
+  @Benchmark
+  public boolean isAntiSymmetric() {
+    return fresh().isAntiSymmetric();
+  }
+
+  @Benchmark
+  public boolean isTransitive() {
+    return fresh().isTransitive();
+  }
+
+  @Benchmark
+  public boolean isEquivalence() {
+    return fresh().isEquivalence();
+  }
+
+  @Benchmark
+  public Set<String> getEquivalenceClass() {
+    return fresh().getEquivalenceClass(vertex);
+  }
+
+  @Benchmark
+  public GraphAnalysis<String> analyze() {
+    return fresh().analyze();
+  }
+
+  @Benchmark
+  public Set<String> getVerticies() {
+    return graph.getVerticies(vertex);
+  }
+
+  @Benchmark
+  public List<String> iterativeBreadthFirstSearch() {
+    return fresh().iterativeBreadthFirstSearch();
+  }
+
+  @Benchmark
+  public List<String> iterativeDepthFirstSearch() {
+    return fresh().iterativeDepthFirstSearch();
+  }
+
+  @Benchmark
+  public List<String> recursiveBreadthFirstSearch() {
+    return fresh().recursiveBreadthFirstSearch();
+  }
+
+  @Benchmark
+  public List<String> recursiveDepthFirstSearch() {
+    return fresh().recursiveDepthFirstSearch();
+  }
+
+  @Benchmark
+  public BreadthFirstLevels<String> parallelBreadthFirstSearch() {
+    return graph.parallelBreadthFirstSearch(true);
+  }
+
+  @Benchmark
+  public long streamDepthFirst() {
+    return graph.stream(Traversal.ITERATIVE_DEPTH_FIRST).count();
+  }
+}
@@ -0,0 +1,90 @@
+package nz.ac.auckland.se281.benchmarks;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import nz.ac.auckland.se281.GraphCalculator;
+import nz.ac.auckland.se281.GraphGenerator;
+import nz.ac.auckland.se281.Loader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks opening a graph file with each {@link Loader}, over each {@link Shape} of graph. The
+ * files are written to a temporary folder rather than the test cases folder, and the calculator is
+ * given their absolute paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoadBenchmark {
+
+  @Param({"CHAIN", "STAR", "CLIQUE", "RANDOM_SPARSE", "POWER_LAW", "EQUIVALENCE"})
+  private Shape shape;
+
+  @Param({"1000", "100000"})
+  private int edges;
+
+  @Param({"PARSER", "STREAMING", "MAPPED", "SNAPSHOT"})
+  private Loader loader;
+
+  private Path folder;
+  private String file;
+
+  /**
+   * Writes the graph as a DOT file, and as a snapshot when that is the loader being measured.
+   *
+   * @throws IOException If the files cannot be written.
+   */
+  @Setup(Level.Trial)
+  public void write() throws IOException {
+    folder = Files.createTempDirectory("graph-benchmark");
+    GraphGenerator generator = shape.generate(edges);
+    Path dot = folder.resolve(shape + ".txt");
+    generator.writeDot(dot);
+    file = dot.toString();
+
+    if (loader == Loader.SNAPSHOT) {
+      Path snapshot = folder.resolve(shape + ".snapshot");
+      generator.writeSnapshot(snapshot);
+      file = snapshot.toString();
+    }
+  }
+
+  /**
+   * Deletes the files written for the trial.
+   *
+   * @throws IOException If the files cannot be deleted.
+   */
+  @TearDown(Level.Trial)
+  public void delete() throws IOException {
+    try (Stream<Path> files = Files.list(folder)) {
+      for (Path path : (Iterable<Path>) files::iterator) {
+        Files.delete(path);
+      }
+    }
+    Files.delete(folder);
+  }
+
+  @Benchmark
+  public GraphCalculator load() throws FileNotFoundException {
+    return new GraphCalculator(file, loader);
+  }
+}
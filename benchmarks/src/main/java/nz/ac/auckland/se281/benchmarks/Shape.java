@@ -0,0 +1,53 @@
+package nz.ac.auckland.se281.benchmarks;
+
+import nz.ac.auckland.se281.GraphGenerator;
+
+/**
+ * The shapes of synthetic graph that the benchmarks run over. Each shape is sized by its number of
+ * edges, so every shape gives the operations a similar amount of work. The graphs are made by
+ * {@link GraphGenerator}, with the verticies named by number like the test cases.
+ */
+public enum Shape {
+  /** A path 0 -> 1 -> 2 -> ..., which is as deep as a graph of its size can be. */
+  CHAIN(GraphGenerator.Shape.CHAIN, 1),
+
+  /** A single root 0 with an edge to every other vertex, which is as shallow as it can be. */
+  STAR(GraphGenerator.Shape.STAR, 1),
+
+  /** An edge between every two different verticies, so every vertex has the highest degree. */
+  CLIQUE(GraphGenerator.Shape.CLIQUE, 1),
+
+  /** Edges between random verticies, with an average out-degree of 4. */
+  RANDOM_SPARSE(GraphGenerator.Shape.ERDOS_RENYI, 4),
+
+  /** Edges to earlier verticies, with in-degrees that follow a power law. */
+  POWER_LAW(GraphGenerator.Shape.POWER_LAW, 4),
+
+  /**
+   * Blocks of 8 verticies with every edge inside each block, including the self-loops, so the
+   * graph is an equivalence relation.
+   */
+  EQUIVALENCE(GraphGenerator.Shape.EQUIVALENCE_BLOCKS, 8);
+
+  // The same seed on every run, so each run benchmarks the same random graphs.
+  private static final long SEED = 281;
+
+  private final GraphGenerator.Shape shape;
+  private final int degree;
+
+  Shape(GraphGenerator.Shape shape, int degree) {
+    this.shape = shape;
+    this.degree = degree;
+  }
+
+  /**
+   * Makes a graph of this shape.
+   *
+   * @param edges The number of edges to aim for. The graph may have a few more or fewer so that
+   *     the shape is complete.
+   * @return The generator of the graph.
+   */
+  public GraphGenerator generate(int edges) {
+    return GraphGenerator.withEdges(shape, edges, degree, SEED);
+  }
+}
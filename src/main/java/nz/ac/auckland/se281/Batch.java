@@ -0,0 +1,291 @@
+package nz.ac.auckland.se281;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the graph calculator without the help menu or prompts, for checking many graphs at once. The
+ * same commands are run on each graph, each graph with a calculator of its own that is kept for all
+ * of its commands. Graphs are run at the same time on a pool of threads, and the output of each is
+ * written in one piece, in the order the graphs were given, through a single buffered writer.
+ *
+ * <p>The arguments are:
+ *
+ * <pre>
+ * (--script FILE | --commands "COMMAND;COMMAND") [--loader LOADER] [--threads N] [--output FILE]
+ *     [GRAPH | @LIST]...
+ * </pre>
+ *
+ * <p>A script has one command on each line, and blank lines and lines starting with {@code #} are
+ * skipped. Each graph is opened before the commands are run on it, and {@code @LIST} reads the
+ * names of graphs from a file, one on each line. If no graphs are given, the commands are run once
+ * as they are, so they should open a file themselves.
+ */
+public class Batch {
+  private static final String USAGE =
+      "Usage: (--script FILE | --commands \"COMMAND;COMMAND\") [--loader LOADER] [--threads N]"
+          + " [--output FILE] [GRAPH | @LIST]...";
+
+  private static final Charset CHARSET = Charset.defaultCharset();
+
+  private final List<String> commands = new ArrayList<>();
+
+  private final List<String> graphs = new ArrayList<>();
+
+  private Loader loader;
+
+  private int threads = Runtime.getRuntime().availableProcessors();
+
+  private Path output;
+
+  /**
+   * Writes everything printed on a thread to the buffer that thread has been given, or to the
+   * original output if it has none. A {@link PrintStream} writes to its stream on the thread that
+   * printed, so one stream can be shared by every job.
+   */
+  private static class RoutedOutput extends OutputStream {
+    private final ThreadLocal<ByteArrayOutputStream> buffers = new ThreadLocal<>();
+    private final OutputStream original;
+
+    private RoutedOutput(final OutputStream original) {
+      this.original = original;
+    }
+
+    private OutputStream target() {
+      final ByteArrayOutputStream buffer = buffers.get();
+      return buffer == null ? original : buffer;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      target().write(b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      target().write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      target().flush();
+    }
+  }
+
+  /**
+   * Reads the arguments of a batch run.
+   *
+   * @param args The arguments given to the program.
+   * @return The batch, or null if the arguments were not valid, in which case the reason has been
+   *     printed.
+   */
+  public static Batch parse(final String[] args) {
+    final Batch batch = new Batch();
+
+    try {
+      for (int i = 0; i < args.length; i++) {
+        final String arg = args[i];
+
+        switch (arg) {
+          case "--script":
+            final Path script = Path.of(value(args, ++i));
+            try {
+              batch.commands.addAll(commands(Files.readAllLines(script)));
+            } catch (final IOException e) {
+              MessageCli.BATCH_NOT_READ.printMessage(script.toString());
+              return null;
+            }
+            break;
+          case "--commands":
+            batch.commands.addAll(commands(Arrays.asList(value(args, ++i).split(";"))));
+            break;
+          case "--loader":
+            batch.loader = Loader.valueOf(value(args, ++i).toUpperCase());
+            break;
+          case "--threads":
+            batch.threads = Math.max(1, Integer.parseInt(value(args, ++i)));
+            break;
+          case "--output":
+            batch.output = Path.of(value(args, ++i));
+            break;
+          default:
+            if (arg.startsWith("--")) {
+              throw new IllegalArgumentException(arg);
+            }
+            batch.addGraphs(arg);
+            break;
+        }
+      }
+    } catch (final IOException e) {
+      return null;
+    } catch (final IllegalArgumentException e) {
+      // Also thrown for a loader or number of threads that could not be read.
+      System.out.println(USAGE);
+      return null;
+    }
+
+    if (batch.commands.isEmpty()) {
+      System.out.println(USAGE);
+      return null;
+    }
+    return batch;
+  }
+
+  /**
+   * Gets the value of the option before it.
+   *
+   * @param args The arguments given to the program.
+   * @param i The index of the value.
+   * @return The value.
+   */
+  private static String value(final String[] args, final int i) {
+    if (i >= args.length) {
+      throw new IllegalArgumentException(args[i - 1]);
+    }
+    return args[i];
+  }
+
+  /**
+   * Removes the blank lines and comments from the lines of a script.
+   *
+   * @param lines The lines of the script.
+   * @return The commands in the script.
+   */
+  private static List<String> commands(final List<String> lines) {
+    final List<String> commands = new ArrayList<>();
+    for (final String line : lines) {
+      final String command = line.trim();
+      if (!command.isEmpty() && !command.startsWith("#")) {
+        commands.add(command);
+      }
+    }
+    return commands;
+  }
+
+  /**
+   * Adds a graph to run the commands on, or every graph in a list if it starts with {@code @}.
+   *
+   * @param arg The name of the graph, or of the list.
+   * @throws IOException If the list cannot be read, in which case the reason has been printed.
+   */
+  private void addGraphs(final String arg) throws IOException {
+    if (!arg.startsWith("@")) {
+      graphs.add(arg);
+      return;
+    }
+
+    final Path list = Path.of(arg.substring(1));
+    try {
+      graphs.addAll(commands(Files.readAllLines(list)));
+    } catch (final IOException e) {
+      MessageCli.BATCH_NOT_READ.printMessage(list.toString());
+      throw e;
+    }
+  }
+
+  /**
+   * Runs the commands on every graph, and writes their output to the output file, or the console
+   * if there is none. A graph whose commands fail has the failure reported at the end of its
+   * output, and the other graphs are still run.
+   *
+   * @throws IOException If the output cannot be written.
+   * @throws InterruptedException If the thread is interrupted while waiting for a graph.
+   */
+  public void run() throws IOException, InterruptedException {
+    final PrintStream console = System.out;
+    final RoutedOutput routed = new RoutedOutput(console);
+    final ExecutorService pool = Executors.newFixedThreadPool(threads);
+    final Writer writer =
+        new BufferedWriter(
+            new OutputStreamWriter(
+                output == null ? console : Files.newOutputStream(output), CHARSET));
+
+    try {
+      System.setOut(new PrintStream(routed, false, CHARSET));
+
+      // Without graphs, the commands are run once as they are.
+      final List<String> names = graphs.isEmpty() ? Arrays.asList((String) null) : graphs;
+      final List<ByteArrayOutputStream> buffers = new ArrayList<>();
+      final List<Future<?>> jobs = new ArrayList<>();
+      for (final String graph : names) {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        buffers.add(buffer);
+        jobs.add(pool.submit(() -> runJob(routed, buffer, graph)));
+      }
+
+      // Write each graph as soon as it and every graph before it are done.
+      for (int i = 0; i < jobs.size(); i++) {
+        String failure = null;
+        try {
+          jobs.get(i).get();
+        } catch (final ExecutionException e) {
+          // One graph failing should not stop the rest from being checked.
+          failure =
+              MessageCli.BATCH_FAILED.getMessage(
+                  String.valueOf(names.get(i)), e.getCause().toString());
+        }
+
+        writer.write(buffers.get(i).toString(CHARSET));
+        buffers.set(i, null);
+        if (failure != null) {
+          writer.write(failure);
+          writer.write(System.lineSeparator());
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+      System.setOut(console);
+
+      // The console is only flushed, so it can still be printed to after the batch.
+      if (output == null) {
+        writer.flush();
+      } else {
+        writer.close();
+      }
+    }
+  }
+
+  /**
+   * Runs the commands on one graph, with everything printed on this thread kept in a buffer.
+   *
+   * @param routed The output that the console has been replaced with.
+   * @param buffer The buffer to keep what the commands print in.
+   * @param graph The graph to open first, or null to only run the commands.
+   */
+  private void runJob(
+      final RoutedOutput routed, final ByteArrayOutputStream buffer, final String graph) {
+    routed.buffers.set(buffer);
+
+    try {
+      final List<String> job = new ArrayList<>();
+      if (loader != null) {
+        job.add(Command.SET_LOADER + " " + loader);
+      }
+      if (graph != null) {
+        MessageCli.BATCH_GRAPH.printMessage(graph);
+        job.add(Command.OPEN_FILE + " " + graph);
+      }
+      job.addAll(commands);
+
+      new Main().runAll(job);
+    } finally {
+      System.out.flush();
+      routed.buffers.remove();
+    }
+  }
+}
@@ -7,6 +7,9 @@ package nz.ac.auckland.se281;
  */
 public enum Command {
   OPEN_FILE(1, "Open the file <FILENAME>"),
+  SET_LOADER(1, "Choose how OPEN_FILE reads files <PARSER|STREAMING|MAPPED|SNAPSHOT>"),
+  SAVE_SNAPSHOT(1, "Save the current loaded graph as a binary snapshot <FILENAME>"),
+  LOAD_SNAPSHOT(1, "Open a binary snapshot saved by SAVE_SNAPSHOT <FILENAME>"),
   INFO(0, "Print information about the current loaded file"),
 
   LIST_VERTICIES_EDGES(0, "List the set of vertices and edges"),
@@ -18,12 +21,20 @@ public enum Command {
   CHECK_ANTISYMMETRY(0, "Check anti-symmetry of the graph"),
   CHECK_EQUIVALENCE(0, "Check equivalence of the graph"),
   COMPUTE_EQUIVALENCE(1, "Compute equivalence class for a vertex in loaded file <VERTEX>"),
+  ANALYZE(0, "Check every property of the graph at once, and display the report"),
+  ADD_EDGE(2, "Add an edge to the current loaded graph <SOURCE> <DESTINATION>"),
+  REMOVE_EDGE(2, "Remove an edge from the current loaded graph <SOURCE> <DESTINATION>"),
 
   GRAPH_SEARCH_IBFS(
       0, "Perform a breadth-first search on the current loaded file, and display the BFS order"),
   GRAPH_SEARCH_IDFS(
       0, "Perform a depth-first search on the current loaded file, and display the DFS order"),
 
+  GRAPH_SEARCH_PBFS(
+      0,
+      "Perform a parallel breadth-first search on the current loaded file, and display the"
+          + " verticies at each level"),
+
   GRAPH_SEARCH_RBFS(
       0,
       "Perform a recursive breadth-first search on the current loaded file, and display the BFS"
@@ -33,6 +44,10 @@ public enum Command {
       "Perform a recursive depth-first search on the current loaded file, and display the DFS"
           + " order"),
 
+  INSTRUMENT(1, "Measure the time, memory and graph work of every command <ON|OFF>"),
+  STATS(0, "Display the totals of every command measured since INSTRUMENT ON"),
+  EXPORT_STATS(1, "Export every command measured since INSTRUMENT ON as JSON <FILENAME>"),
+
   HELP(0, "Print usage"),
   EXIT(0, "Exit the application");
 
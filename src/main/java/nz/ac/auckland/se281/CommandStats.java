@@ -0,0 +1,243 @@
+package nz.ac.auckland.se281;
+
+import com.sun.management.ThreadMXBean;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import nz.ac.auckland.se281.datastructures.GraphCounters;
+
+/**
+ * Measurements of the commands run while {@link Command#INSTRUMENT} is on. Each command records
+ * its wall time, the CPU time and allocated bytes of the threads that ran during it, and the
+ * verticies visited and edges scanned by the graph.
+ *
+ * <p>The CPU time and allocations are measured for each thread, from when the command started or
+ * the thread did, to when the command finished. Threads that finish before the command does, such
+ * as the thread a deep recursive search runs on, are gone by then, so their CPU time and
+ * allocations are not counted, and a thread that finishes cannot take what it used away from the
+ * rest. Their verticies and edges are still counted.
+ */
+public class CommandStats {
+  private static final ThreadMXBean THREADS =
+      (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private static final String TABLE_ROW = "%-24s %6s %12s %12s %14s %14s %14s%n";
+
+  private final GraphCounters counters = new GraphCounters();
+
+  private final List<Measurement> measurements = new ArrayList<>();
+
+  /** The measurements of one run of a command. */
+  private static class Measurement {
+    private final Command command;
+    private final String[] arguments;
+    private long wallNanos;
+    private long cpuNanos;
+    private long allocatedBytes;
+    private long verticiesVisited;
+    private long edgesScanned;
+
+    private Measurement(final Command command, final String[] arguments) {
+      this.command = command;
+      this.arguments = arguments;
+    }
+
+    private void add(final Measurement other) {
+      wallNanos += other.wallNanos;
+      cpuNanos += other.cpuNanos;
+      allocatedBytes += other.allocatedBytes;
+      verticiesVisited += other.verticiesVisited;
+      edgesScanned += other.edgesScanned;
+    }
+  }
+
+  /** A command that is being measured, from when it started. */
+  public class Sample {
+    private final Measurement measurement;
+    private final long wallStart;
+    private final ThreadUsage usageStart;
+    private final long verticiesStart;
+    private final long edgesStart;
+
+    private Sample(final Command command, final String[] arguments) {
+      measurement = new Measurement(command, arguments);
+      verticiesStart = counters.getVerticiesVisited();
+      edgesStart = counters.getEdgesScanned();
+      usageStart = new ThreadUsage();
+      wallStart = System.nanoTime();
+    }
+
+    /** Records the measurements of the command, now that it has finished. */
+    public void finish() {
+      measurement.wallNanos = System.nanoTime() - wallStart;
+      final ThreadUsage usage = new ThreadUsage();
+      measurement.cpuNanos = ThreadUsage.used(usageStart.cpuNanos, usage.cpuNanos);
+      measurement.allocatedBytes =
+          ThreadUsage.used(usageStart.allocatedBytes, usage.allocatedBytes);
+      measurement.verticiesVisited = counters.getVerticiesVisited() - verticiesStart;
+      measurement.edgesScanned = counters.getEdgesScanned() - edgesStart;
+      measurements.add(measurement);
+    }
+  }
+
+  /**
+   * Gets the counters that the graph adds the verticies it visits and the edges it scans to.
+   *
+   * @return The counters.
+   */
+  public GraphCounters getCounters() {
+    return counters;
+  }
+
+  /**
+   * Starts measuring a command.
+   *
+   * @param command The command being run.
+   * @param arguments The arguments the command was given.
+   * @return The measurement in progress, to finish when the command is done.
+   */
+  public Sample start(final Command command, final String[] arguments) {
+    return new Sample(command, arguments);
+  }
+
+  /** The CPU time and allocated bytes of each live thread, at one moment. */
+  private static class ThreadUsage {
+    private final Map<Long, Long> cpuNanos = new HashMap<>();
+    private final Map<Long, Long> allocatedBytes = new HashMap<>();
+
+    private ThreadUsage() {
+      final long[] ids = THREADS.getAllThreadIds();
+      if (THREADS.isThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled()) {
+        record(ids, THREADS.getThreadCpuTime(ids), cpuNanos);
+      }
+      if (THREADS.isThreadAllocatedMemorySupported()
+          && THREADS.isThreadAllocatedMemoryEnabled()) {
+        record(ids, THREADS.getThreadAllocatedBytes(ids), allocatedBytes);
+      }
+    }
+
+    private static void record(final long[] ids, final long[] values, final Map<Long, Long> usage) {
+      for (int i = 0; i < ids.length; i++) {
+        // A thread that has died since its id was taken reports -1.
+        if (values[i] >= 0) {
+          usage.put(ids[i], values[i]);
+        }
+      }
+    }
+
+    /**
+     * Sums what each thread that is still alive has used between two moments. A thread that
+     * started in between is counted from when it started.
+     *
+     * @param before The CPU time or allocated bytes of each thread at the first moment.
+     * @param after The same measure of each thread at the second moment.
+     * @return The total used in between.
+     */
+    private static long used(final Map<Long, Long> before, final Map<Long, Long> after) {
+      long sum = 0;
+      for (final Map.Entry<Long, Long> thread : after.entrySet()) {
+        sum += Math.max(0, thread.getValue() - before.getOrDefault(thread.getKey(), 0L));
+      }
+      return sum;
+    }
+  }
+
+  /**
+   * Prints the totals of every command that has been measured, in the order they were first run,
+   * so the most expensive command stands out.
+   */
+  public void print() {
+    final Map<Command, Measurement> totals = new LinkedHashMap<>();
+    final Map<Command, Integer> runs = new LinkedHashMap<>();
+    for (final Measurement measurement : measurements) {
+      totals
+          .computeIfAbsent(
+              measurement.command, command -> new Measurement(command, new String[0]))
+          .add(measurement);
+      runs.merge(measurement.command, 1, Integer::sum);
+    }
+
+    final StringBuilder sb = new StringBuilder();
+    sb.append(
+        String.format(
+            TABLE_ROW,
+            "Command",
+            "Runs",
+            "Wall (ms)",
+            "CPU (ms)",
+            "Allocated (KB)",
+            "Verticies",
+            "Edges"));
+    for (final Measurement total : totals.values()) {
+      sb.append(
+          String.format(
+              TABLE_ROW,
+              total.command,
+              runs.get(total.command),
+              String.format("%.3f", total.wallNanos / 1e6),
+              String.format("%.3f", total.cpuNanos / 1e6),
+              total.allocatedBytes / 1024,
+              total.verticiesVisited,
+              total.edgesScanned));
+    }
+    System.out.print(sb);
+  }
+
+  /**
+   * Writes every measurement as JSON, in the order the commands were run.
+   *
+   * @param file The file to write.
+   * @throws IOException If the file cannot be written.
+   */
+  public void export(final Path file) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write("{\"commands\": [");
+      for (int i = 0; i < measurements.size(); i++) {
+        final Measurement measurement = measurements.get(i);
+        writer.write(i == 0 ? "" : ",");
+        writer.newLine();
+        writer.write("  {\"command\": " + quote(measurement.command.toString()));
+        writer.write(", \"arguments\": [");
+        for (int j = 0; j < measurement.arguments.length; j++) {
+          writer.write((j == 0 ? "" : ", ") + quote(measurement.arguments[j]));
+        }
+        writer.write("], \"wallNanos\": " + measurement.wallNanos);
+        writer.write(", \"cpuNanos\": " + measurement.cpuNanos);
+        writer.write(", \"allocatedBytes\": " + measurement.allocatedBytes);
+        writer.write(", \"verticiesVisited\": " + measurement.verticiesVisited);
+        writer.write(", \"edgesScanned\": " + measurement.edgesScanned + "}");
+      }
+      writer.newLine();
+      writer.write("]}");
+      writer.newLine();
+    }
+  }
+
+  /**
+   * Quotes a string for JSON, escaping the characters that cannot appear in it as they are.
+   *
+   * @param value The string to quote.
+   * @return The quoted string.
+   */
+  private static String quote(final String value) {
+    final StringBuilder sb = new StringBuilder("\"");
+    for (final char c : value.toCharArray()) {
+      if (c == '"' || c == '\\') {
+        sb.append('\\').append(c);
+      } else if (c < 0x20) {
+        sb.append(String.format("\\u%04x", (int) c));
+      } else {
+        sb.append(c);
+      }
+    }
+    return sb.append('"').toString();
+  }
+}
@@ -0,0 +1,362 @@
+package nz.ac.auckland.se281;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+import nz.ac.auckland.se281.datastructures.GraphBuilder;
+
+/**
+ * A streaming reader for DOT graph files. It tokenizes the input as it is read and adds each node
+ * and edge statement, such as {@code a -> b;}, straight to a {@link GraphBuilder}, so no parse
+ * tree or set of edges is ever held in memory.
+ *
+ * <p>Graph, node and edge attributes, ports and comments are skipped. Subgraphs are read as plain
+ * lists of statements.
+ */
+public class DotReader {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private enum Token {
+    ID,
+    ARROW,
+    EQUALS,
+    COLON,
+    OPEN_BRACKET,
+    CLOSE_BRACKET,
+    SEPARATOR,
+    END
+  }
+
+  private final Reader reader;
+
+  private final char[] buffer = new char[BUFFER_SIZE];
+  private int position;
+  private int limit;
+  private int line = 1;
+
+  private final StringBuilder text = new StringBuilder();
+  private Token token;
+  private boolean quoted;
+
+  /**
+   * Creates a new reader for DOT text.
+   *
+   * @param reader The DOT text to read.
+   */
+  public DotReader(final Reader reader) {
+    this.reader = reader;
+  }
+
+  /**
+   * Reads every statement and adds its verticies and edges to the builder.
+   *
+   * @param builder The builder to add each vertex and edge to.
+   * @throws IOException If the text cannot be read.
+   * @throws IllegalArgumentException If an edge has no vertex at its end.
+   */
+  public void read(final GraphBuilder builder) throws IOException {
+    read(builder, builder.edges());
+  }
+
+  /**
+   * Reads every statement and adds its verticies to the builder, and its edges to a list of edges
+   * that was asked for beforehand so that it keeps its place in the order.
+   *
+   * @param builder The builder to add each vertex to.
+   * @param edges The list to add each edge to.
+   * @throws IOException If the text cannot be read.
+   * @throws IllegalArgumentException If an edge has no vertex at its end.
+   */
+  public void read(final GraphBuilder builder, final GraphBuilder.Edges edges)
+      throws IOException {
+    advance();
+
+    while (token != Token.END) {
+      if (token == Token.OPEN_BRACKET) {
+        skipAttributes();
+        continue;
+      }
+
+      if (token != Token.ID) {
+        // Braces, semicolons and commas only separate statements.
+        advance();
+        continue;
+      }
+
+      if (!quoted && skipKeyword()) {
+        continue;
+      }
+
+      final String first = text.toString();
+      advance();
+      skipPort();
+
+      if (token == Token.EQUALS) {
+        // A graph attribute, such as rankdir=LR.
+        advance();
+        advance();
+        continue;
+      }
+
+      int previous = builder.vertex(first);
+      if (token != Token.ARROW) {
+        edges.vertex(previous);
+      }
+
+      while (token == Token.ARROW) {
+        advance();
+
+        if (token != Token.ID) {
+          throw new IllegalArgumentException("Expected a vertex after an edge on line " + line);
+        }
+
+        final int next = builder.vertex(text.toString());
+        edges.add(previous, next);
+        previous = next;
+        advance();
+        skipPort();
+      }
+    }
+  }
+
+  /**
+   * Skips a keyword and anything that belongs to it, if the current token is a keyword.
+   *
+   * @return If a keyword was skipped.
+   * @throws IOException If the text cannot be read.
+   */
+  private boolean skipKeyword() throws IOException {
+    switch (text.toString().toLowerCase(Locale.ROOT)) {
+      case "strict":
+        advance();
+        return true;
+      case "digraph":
+      case "graph":
+      case "subgraph":
+        advance();
+
+        // The name of the graph is optional.
+        if (token == Token.ID) {
+          advance();
+        }
+        return true;
+      case "node":
+      case "edge":
+        advance();
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Skips the port and compass point of a vertex, such as the ":p:n" in "a:p:n".
+   *
+   * @throws IOException If the text cannot be read.
+   */
+  private void skipPort() throws IOException {
+    while (token == Token.COLON) {
+      advance();
+      advance();
+    }
+  }
+
+  /**
+   * Skips an attribute list, such as "[label=a, color=red]".
+   *
+   * @throws IOException If the text cannot be read.
+   */
+  private void skipAttributes() throws IOException {
+    while (token != Token.CLOSE_BRACKET && token != Token.END) {
+      advance();
+    }
+    advance();
+  }
+
+  /**
+   * Reads the next token into {@link #token} and, for ids, {@link #text}.
+   *
+   * @throws IOException If the text cannot be read.
+   */
+  private void advance() throws IOException {
+    text.setLength(0);
+    quoted = false;
+
+    int c = skipWhitespaceAndComments();
+
+    if (c < 0) {
+      token = Token.END;
+      return;
+    }
+
+    switch (c) {
+      case '[':
+        token = Token.OPEN_BRACKET;
+        return;
+      case ']':
+        token = Token.CLOSE_BRACKET;
+        return;
+      case '=':
+        token = Token.EQUALS;
+        return;
+      case ':':
+        token = Token.COLON;
+        return;
+      case '{':
+      case '}':
+      case ';':
+      case ',':
+        token = Token.SEPARATOR;
+        return;
+      case '"':
+        readQuoted();
+        return;
+      case '<':
+        readHtml();
+        return;
+      case '-':
+        final int next = peek();
+
+        if (next == '>' || next == '-') {
+          // Both directed and undirected edges are read as edges.
+          read();
+          token = Token.ARROW;
+          return;
+        }
+        break;
+      default:
+        break;
+    }
+
+    // An unquoted id runs until the next character that cannot be part of one.
+    text.append((char) c);
+
+    while (isIdCharacter(peek())) {
+      text.append((char) read());
+    }
+
+    token = Token.ID;
+  }
+
+  /**
+   * Skips whitespace, "//" and "#" line comments, and "/* *\/" block comments.
+   *
+   * @return The first character after them, or -1 at the end of the text.
+   * @throws IOException If the text cannot be read.
+   */
+  private int skipWhitespaceAndComments() throws IOException {
+    while (true) {
+      final int c = read();
+
+      if (c == '/' && peek() == '/' || c == '#') {
+        while (peek() >= 0 && peek() != '\n') {
+          read();
+        }
+      } else if (c == '/' && peek() == '*') {
+        read();
+
+        int previous = 0;
+        int current = read();
+
+        while (current >= 0 && !(previous == '*' && current == '/')) {
+          previous = current;
+          current = read();
+        }
+      } else if (c < 0 || !Character.isWhitespace(c)) {
+        return c;
+      }
+    }
+  }
+
+  /**
+   * Reads a quoted id, where the opening quote has already been read.
+   *
+   * @throws IOException If the text cannot be read.
+   */
+  private void readQuoted() throws IOException {
+    int c = read();
+
+    while (c >= 0 && c != '"') {
+      if (c == '\\' && peek() == '"') {
+        c = read();
+      }
+      text.append((char) c);
+      c = read();
+    }
+
+    token = Token.ID;
+    quoted = true;
+  }
+
+  /**
+   * Reads an HTML id, such as "&lt;b&gt;a&lt;/b&gt;", where the opening bracket has already been
+   * read.
+   *
+   * @throws IOException If the text cannot be read.
+   */
+  private void readHtml() throws IOException {
+    int depth = 1;
+    text.append('<');
+
+    while (depth > 0) {
+      final int c = read();
+
+      if (c < 0) {
+        break;
+      }
+      if (c == '<') {
+        depth++;
+      } else if (c == '>') {
+        depth--;
+      }
+      text.append((char) c);
+    }
+
+    token = Token.ID;
+    quoted = true;
+  }
+
+  private boolean isIdCharacter(final int c) {
+    return c >= 0 && (Character.isLetterOrDigit(c) || c == '_' || c == '.' || c > 127);
+  }
+
+  /**
+   * Reads the next character.
+   *
+   * @return The character, or -1 at the end of the text.
+   * @throws IOException If the text cannot be read.
+   */
+  private int read() throws IOException {
+    final int c = peek();
+
+    if (c >= 0) {
+      position++;
+
+      if (c == '\n') {
+        line++;
+      }
+    }
+
+    return c;
+  }
+
+  /**
+   * Returns the next character without reading it, refilling the buffer when it runs out.
+   *
+   * @return The character, or -1 at the end of the text.
+   * @throws IOException If the text cannot be read.
+   */
+  private int peek() throws IOException {
+    if (position == limit) {
+      limit = reader.read(buffer, 0, buffer.length);
+      position = 0;
+
+      if (limit <= 0) {
+        limit = 0;
+        return -1;
+      }
+    }
+
+    return buffer[position];
+  }
+}
@@ -3,15 +3,30 @@ package nz.ac.auckland.se281;
 import com.paypal.digraph.parser.GraphEdge;
 import com.paypal.digraph.parser.GraphNode;
 import com.paypal.digraph.parser.GraphParser;
+import com.paypal.digraph.parser.GraphParserException;
+import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
 import nz.ac.auckland.se281.datastructures.Edge;
 import nz.ac.auckland.se281.datastructures.Graph;
+import nz.ac.auckland.se281.datastructures.GraphAnalysis;
+import nz.ac.auckland.se281.datastructures.GraphBuilder;
+import nz.ac.auckland.se281.datastructures.GraphCounters;
+import nz.ac.auckland.se281.datastructures.GraphSnapshot;
+import nz.ac.auckland.se281.datastructures.ReadOrder;
+import nz.ac.auckland.se281.datastructures.Traversal;
+import nz.ac.auckland.se281.datastructures.VertexOrder;
 
 /**
  * The calculator that reports properties of graphs to the user.
@@ -21,41 +36,221 @@ import nz.ac.auckland.se281.datastructures.Graph;
 public class GraphCalculator {
   private static final Path TESTCASES = Path.of("testcases");
 
+  private static final int PRINT_BUFFER_SIZE = 1 << 13;
+
   private final Path file;
 
-  private final Collection<GraphNode> verticies;
+  // The verticies and edges in the order they were read, which are views rather than copies.
+  private final Collection<String> verticies;
 
-  private final Collection<GraphEdge> edges;
+  private final Collection<Edge<String>> edges;
 
   private final Graph<String> graph;
 
+  // The order the graph was read from its file in, or null if it was restored from a snapshot.
+  private final ReadOrder readOrder;
+
   /**
-   * Creates a new graph calculator.
+   * Creates a new graph calculator, reading the file with the DOT parser library.
    *
    * @param filename The name of the test case to read.
    * @throws FileNotFoundException If the file does not exist.
    */
   public GraphCalculator(final String filename) throws FileNotFoundException {
+    this(filename, Loader.PARSER);
+  }
+
+  /**
+   * Creates a new graph calculator.
+   *
+   * @param filename The name of the test case to read.
+   * @param loader How to read the file.
+   * @throws FileNotFoundException If the file does not exist.
+   * @throws IllegalArgumentException If the file is not a valid graph.
+   * @throws UncheckedIOException If the file cannot be read.
+   */
+  public GraphCalculator(final String filename, final Loader loader)
+      throws FileNotFoundException {
+    final GraphLoadEvent event = new GraphLoadEvent();
+    event.begin();
+
     file = TESTCASES.resolve(filename);
 
-    final GraphParser parser = new GraphParser(new FileInputStream(file.toFile()));
+    if (loader == Loader.SNAPSHOT) {
+      // A snapshot does not keep the order its graph was read in, so it is listed in vertex order.
+      graph = restore();
+      readOrder = null;
+      verticies = graph.vertexSet();
+      edges = graph.edgeSet();
+    } else {
+      final GraphBuilder builder = new GraphBuilder();
+      switch (loader) {
+        case STREAMING:
+          stream(builder);
+          break;
+        case MAPPED:
+          map(builder);
+          break;
+        case PARSER:
+        default:
+          parse(builder);
+          break;
+      }
+
+      graph = builder.build(VertexOrder.numerical());
+      readOrder = builder.getReadOrder();
+      verticies = readOrder.verticies();
+      edges = readOrder.edges();
+    }
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.file = file.toString();
+      event.loader = loader.toString();
+      event.verticies = verticies.size();
+      event.edges = edges.size();
+      event.commit();
+    }
+  }
+
+  /**
+   * Reads the file with the DOT parser library, and adds its nodes and then its edges to the
+   * builder.
+   *
+   * @param builder The builder to add each vertex and edge to.
+   * @throws FileNotFoundException If the file does not exist.
+   */
+  private void parse(final GraphBuilder builder) throws FileNotFoundException {
+    final GraphParser parser;
+    try {
+      parser = new GraphParser(new FileInputStream(file.toFile()));
+    } catch (final GraphParserException e) {
+      // Report it the same way as the other loaders report text that is not a graph.
+      throw new IllegalArgumentException(e.getMessage(), e);
+    }
+    final GraphBuilder.Edges edges = builder.edges();
+
+    for (final GraphNode node : parser.getNodes().values()) {
+      edges.vertex(builder.vertex(node.getId()));
+    }
+
+    for (final GraphEdge edge : parser.getEdges().values()) {
+      edges.add(builder.vertex(edge.getNode1().getId()), builder.vertex(edge.getNode2().getId()));
+    }
+  }
+
+  /**
+   * Streams the file through a {@link DotReader}, adding each vertex and edge as it is read.
+   *
+   * @param builder The builder to add each vertex and edge to.
+   * @throws FileNotFoundException If the file does not exist.
+   */
+  private void stream(final GraphBuilder builder) throws FileNotFoundException {
+    final FileInputStream input = new FileInputStream(file.toFile());
+
+    try (Reader reader =
+        new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      new DotReader(reader).read(builder);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Memory-maps the file and reads it in parallel with a {@link MappedDotReader}.
+   *
+   * @param builder The builder to add each vertex and edge to.
+   * @throws FileNotFoundException If the file does not exist.
+   */
+  private void map(final GraphBuilder builder) throws FileNotFoundException {
+    try (FileChannel channel = new FileInputStream(file.toFile()).getChannel()) {
+      new MappedDotReader(channel).read(builder);
+    } catch (final FileNotFoundException e) {
+      throw e;
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Memory-maps a snapshot written by {@link #saveSnapshot(String)} and reads the graph from it.
+   *
+   * @return The graph stored in the snapshot.
+   * @throws FileNotFoundException If the file does not exist.
+   */
+  private Graph<String> restore() throws FileNotFoundException {
+    try (FileChannel channel = new FileInputStream(file.toFile()).getChannel()) {
+      // Snapshots are written from graphs in numerical order, the same as a graph read from a file.
+      return GraphSnapshot.read(channel, VertexOrder.numerical());
+    } catch (final FileNotFoundException e) {
+      throw e;
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
 
-    this.verticies = parser.getNodes().values();
-    this.edges = parser.getEdges().values();
+  /**
+   * Writes a binary snapshot of the graph, with every property checked, so that it can be opened
+   * again quickly with the {@link Loader#SNAPSHOT} loader.
+   *
+   * @param filename The name of the snapshot in the test cases folder.
+   */
+  public void saveSnapshot(final String filename) {
+    try (FileChannel channel =
+        FileChannel.open(
+            TESTCASES.resolve(filename),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      GraphSnapshot.write(graph, channel);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
 
-    final Set<String> verticies = new HashSet<>();
+  /**
+   * Adds an edge to the graph, and adds either end that is not in the graph yet.
+   *
+   * @param source The source of the edge.
+   * @param destination The destination of the edge.
+   */
+  public void addEdge(final String source, final String destination) {
+    if (!graph.addEdge(source, destination)) {
+      MessageCli.EDGE_ALREADY_EXISTS.printMessage(source, destination);
+      return;
+    }
 
-    for (final GraphNode node : this.verticies) {
-      verticies.add(node.getId());
+    if (readOrder != null) {
+      readOrder.addEdge(source, destination);
     }
+    MessageCli.EDGE_ADDED.printMessage(source, destination);
+  }
 
-    final Set<Edge<String>> edges = new HashSet<>();
+  /**
+   * Removes an edge from the graph, keeping both of its ends.
+   *
+   * @param source The source of the edge.
+   * @param destination The destination of the edge.
+   */
+  public void removeEdge(final String source, final String destination) {
+    if (!graph.removeEdge(source, destination)) {
+      MessageCli.EDGE_NOT_FOUND.printMessage(source, destination);
+      return;
+    }
 
-    for (final GraphEdge edge : this.edges) {
-      edges.add(new Edge<>(edge.getNode1().getId(), edge.getNode2().getId()));
+    if (readOrder != null) {
+      readOrder.removeEdge(source, destination);
     }
+    MessageCli.EDGE_REMOVED.printMessage(source, destination);
+  }
 
-    graph = new Graph<>(verticies, edges);
+  /**
+   * Counts the verticies visited and edges scanned by every check and search of the graph.
+   *
+   * @param counters The counters to add to, or null to stop counting.
+   */
+  public void setCounters(final GraphCounters counters) {
+    graph.setCounters(counters);
   }
 
   /** Prints the filename of the test case that is loaded. */
@@ -68,18 +263,18 @@ public class GraphCalculator {
     final StringBuilder sb = new StringBuilder("Verticies:").append(System.lineSeparator());
 
     // Vertically print each vertex.
-    for (final GraphNode node : verticies) {
-      sb.append("\t").append(node.getId()).append(System.lineSeparator());
+    for (final String vertex : verticies) {
+      sb.append("\t").append(vertex).append(System.lineSeparator());
     }
 
     sb.append(System.lineSeparator()).append("Edges:").append(System.lineSeparator());
 
     // Vertically print each edge between verticies.
-    for (final GraphEdge edge : edges) {
+    for (final Edge<String> edge : edges) {
       sb.append("\t")
-          .append(edge.getNode1().getId())
+          .append(edge.getSource())
           .append(" -> ")
-          .append(edge.getNode2().getId())
+          .append(edge.getDestination())
           .append(System.lineSeparator());
     }
 
@@ -116,6 +311,33 @@ public class GraphCalculator {
     MessageCli.GRAPH_EQUIVALENCE.printMessage(prefixNot(graph.isEquivalence()));
   }
 
+  /** Prints a report of every property of the graph, checked together in a single pass. */
+  public void printAnalysis() {
+    final GraphAnalysis<String> analysis = graph.analyze();
+    final String average = String.format("%.2f", analysis.getAverageDegree());
+
+    MessageCli.GRAPH_SIZE.printMessage(
+        String.valueOf(analysis.getVerticies()),
+        String.valueOf(analysis.getEdges()),
+        String.valueOf(analysis.getSelfLoops()));
+    MessageCli.GRAPH_REFLEXIVE.printMessage(prefixNot(analysis.isReflexive()));
+    MessageCli.GRAPH_SYMMETRIC.printMessage(prefixNot(analysis.isSymmetric()));
+    MessageCli.GRAPH_ANTI_SYMMETRIC.printMessage(prefixNot(analysis.isAntiSymmetric()));
+    MessageCli.GRAPH_TRANSITIVE.printMessage(prefixNot(analysis.isTransitive()));
+    MessageCli.GRAPH_EQUIVALENCE.printMessage(prefixNot(analysis.isEquivalence()));
+    MessageCli.GRAPH_ROOTS.printMessage(analysis.getRoots().toString());
+    MessageCli.GRAPH_DEGREES.printMessage(
+        "In",
+        String.valueOf(analysis.getMinInDegree()),
+        String.valueOf(analysis.getMaxInDegree()),
+        average);
+    MessageCli.GRAPH_DEGREES.printMessage(
+        "Out",
+        String.valueOf(analysis.getMinOutDegree()),
+        String.valueOf(analysis.getMaxOutDegree()),
+        average);
+  }
+
   /**
    * Prints the verticies in the equivalence class of the given vertex.
    *
@@ -127,24 +349,63 @@ public class GraphCalculator {
     System.out.println(Arrays.toString(equivalenceClass));
   }
 
-  /** Prints the search order of an iterative breadth first search. */
+  /** Prints the search order of an iterative breadth first search, as it is found. */
   public void printIterativeBreadthFirstSearch() {
-    System.out.println(Arrays.toString(graph.iterativeBreadthFirstSearch().toArray()));
+    printSearch(graph.traverse(Traversal.ITERATIVE_BREADTH_FIRST));
   }
 
-  /** Prints the search order of an iterative depth first search. */
+  /** Prints the search order of an iterative depth first search, as it is found. */
   public void printDepthFirstSearch() {
-    System.out.println(Arrays.toString(graph.iterativeDepthFirstSearch().toArray()));
+    printSearch(graph.traverse(Traversal.ITERATIVE_DEPTH_FIRST));
   }
 
-  /** Prints the search order of a recursive breadth first search. */
+  /** Prints the verticies at each level of a parallel breadth first search, in numerical order. */
+  public void printParallelBreadthFirstSearch() {
+    System.out.println(graph.parallelBreadthFirstSearch(true).getLevels());
+  }
+
+  /**
+   * Prints the search order of a recursive breadth first search, as it is found. The search runs on
+   * a thread with a stack large enough for the graph, and only a few pieces of its order are held
+   * at a time.
+   */
   public void printRecursiveBreadthFirstSearch() {
-    System.out.println(Arrays.toString(graph.recursiveBreadthFirstSearch().toArray()));
+    printSearch(graph.traverse(Traversal.RECURSIVE_BREADTH_FIRST));
   }
 
-  /** Prints the search order of a recursive depth first search. */
+  /**
+   * Prints the search order of a recursive depth first search, as it is found. The search runs on a
+   * thread with a stack large enough for the graph, and only a few pieces of its order are held at
+   * a time.
+   */
   public void printRecursiveDepthFirstSearch() {
-    System.out.println(Arrays.toString(graph.recursiveDepthFirstSearch().toArray()));
+    printSearch(graph.traverse(Traversal.RECURSIVE_DEPTH_FIRST));
+  }
+
+  /**
+   * Prints the verticies of a search as they are iterated over, writing them out a piece at a time
+   * rather than building the whole order as one string.
+   *
+   * @param order The verticies in search order.
+   */
+  private void printSearch(final Iterator<String> order) {
+    final StringBuilder sb = new StringBuilder("[");
+
+    while (order.hasNext()) {
+      sb.append(order.next());
+
+      if (order.hasNext()) {
+        sb.append(", ");
+      }
+
+      // Write out what has been found so far, rather than building the whole order.
+      if (sb.length() >= PRINT_BUFFER_SIZE) {
+        System.out.print(sb);
+        sb.setLength(0);
+      }
+    }
+
+    System.out.println(sb.append("]"));
   }
 
   /**
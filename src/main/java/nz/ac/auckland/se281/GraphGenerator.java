@@ -0,0 +1,559 @@
+package nz.ac.auckland.se281;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.StringJoiner;
+import nz.ac.auckland.se281.datastructures.Graph;
+import nz.ac.auckland.se281.datastructures.GraphBuilder;
+import nz.ac.auckland.se281.datastructures.GraphSnapshot;
+import nz.ac.auckland.se281.datastructures.VertexOrder;
+
+/**
+ * Generates large synthetic graphs for the test cases folder. Each graph is written as a DOT file,
+ * as a binary snapshot for the {@link Loader#SNAPSHOT} loader, and as a sidecar file of the
+ * properties the graph is expected to have.
+ *
+ * <p>The verticies are named by the numbers 0 to n - 1, so their ids are the same as their names.
+ * Every edge is packed into a long as its source and destination, and the edges are sorted and made
+ * unique as longs, so a graph with millions of edges is never held as sets of objects. The expected
+ * properties are checked straight from the sorted rows, without using {@link
+ * nz.ac.auckland.se281.datastructures.Graph}, so they can be used to test it.
+ */
+public class GraphGenerator {
+
+  /** The shapes of graph that can be generated. */
+  public enum Shape {
+    /** The given number of edges per vertex, each between two verticies chosen at random. */
+    ERDOS_RENYI,
+
+    /**
+     * Each vertex has edges to the given number of earlier verticies, chosen in proportion to how
+     * many edges they already have, so the in-degrees follow a power law.
+     */
+    POWER_LAW,
+
+    /** A single path 0 -> 1 -> ... -> n - 1, as deep as a graph of its size can be. */
+    CHAIN,
+
+    /** A single root 0 with an edge to every other vertex, as shallow as a graph can be. */
+    STAR,
+
+    /** An edge between every two different verticies, so every vertex has the highest degree. */
+    CLIQUE,
+
+    /** Blocks of the given number of verticies with every edge inside each block. */
+    EQUIVALENCE_BLOCKS,
+
+    /** An Erdős–Rényi graph with an edge from every vertex to itself added. */
+    REFLEXIVE_CLOSURE,
+
+    /** An Erdős–Rényi graph with the reverse of every edge added. */
+    SYMMETRIC_CLOSURE
+  }
+
+  private static final Path TESTCASES = Path.of("testcases");
+
+  private static final int DEFAULT_DEGREE = 4;
+
+  private static final long DEFAULT_SEED = 281;
+
+  // Only the first of these roots are written to the sidecar, so it stays small.
+  private static final int SIDECAR_ROOTS = 10;
+
+  private static final long MAX_EDGES = Integer.MAX_VALUE - 8;
+
+  private final Shape shape;
+  private final int degree;
+  private final long seed;
+  private final int[] outOffsets;
+  private final int[] outTargets;
+
+  /**
+   * Generates a graph.
+   *
+   * @param shape The shape of the graph.
+   * @param verticies The number of verticies.
+   * @param degree The number of edges per vertex, or the size of each block for {@link
+   *     Shape#EQUIVALENCE_BLOCKS}. It is not used for a {@link Shape#CHAIN}, {@link Shape#STAR} or
+   *     {@link Shape#CLIQUE}.
+   * @param seed The seed of the random choices, so the same graph can be generated again.
+   */
+  public GraphGenerator(final Shape shape, final int verticies, final int degree, final long seed) {
+    if (verticies < 1 || degree < 1) {
+      throw new IllegalArgumentException("A graph needs at least one vertex and a degree of one");
+    }
+    this.shape = shape;
+    this.degree = degree;
+    this.seed = seed;
+
+    final Random random = new Random(seed);
+    final long[] edges;
+    switch (shape) {
+      case POWER_LAW:
+        edges = powerLaw(verticies, degree, random);
+        break;
+      case CHAIN:
+        edges = chain(verticies);
+        break;
+      case STAR:
+        edges = star(verticies);
+        break;
+      case CLIQUE:
+        edges = clique(verticies);
+        break;
+      case EQUIVALENCE_BLOCKS:
+        edges = blocks(verticies, degree);
+        break;
+      case REFLEXIVE_CLOSURE:
+        edges = reflexiveClosure(erdosRenyi(verticies, degree, random), verticies);
+        break;
+      case SYMMETRIC_CLOSURE:
+        edges = symmetricClosure(erdosRenyi(verticies, degree, random));
+        break;
+      case ERDOS_RENYI:
+      default:
+        edges = erdosRenyi(verticies, degree, random);
+        break;
+    }
+
+    // The edges are sorted and unique, so they fill each row in order.
+    outOffsets = new int[verticies + 1];
+    outTargets = new int[edges.length];
+    for (int i = 0; i < edges.length; i++) {
+      outOffsets[source(edges[i]) + 1]++;
+      outTargets[i] = destination(edges[i]);
+    }
+    for (int v = 0; v < verticies; v++) {
+      outOffsets[v + 1] += outOffsets[v];
+    }
+  }
+
+  /**
+   * Generates a graph with about the given number of edges rather than verticies, so that graphs of
+   * different shapes can be given a similar amount of work. The graph may have a few more or fewer
+   * edges so that its shape is complete.
+   *
+   * @param shape The shape of the graph.
+   * @param edges The number of edges to aim for.
+   * @param degree The number of edges per vertex, or the size of each block for {@link
+   *     Shape#EQUIVALENCE_BLOCKS}.
+   * @param seed The seed of the random choices, so the same graph can be generated again.
+   * @return The generator of the graph.
+   */
+  public static GraphGenerator withEdges(
+      final Shape shape, final int edges, final int degree, final long seed) {
+    if (edges < 0 || degree < 1) {
+      throw new IllegalArgumentException("A graph cannot have fewer than no edges, or a degree below one");
+    }
+    final int verticies;
+    switch (shape) {
+      case CHAIN:
+      case STAR:
+        verticies = edges + 1;
+        break;
+      case CLIQUE:
+        // A clique of n verticies has n * (n - 1) edges.
+        verticies = (int) Math.sqrt(edges) + 1;
+        break;
+      case EQUIVALENCE_BLOCKS:
+        verticies = Math.max(1, edges / (degree * degree)) * degree;
+        break;
+      case REFLEXIVE_CLOSURE:
+        verticies = Math.max(2, edges / (degree + 1));
+        break;
+      case SYMMETRIC_CLOSURE:
+        verticies = Math.max(2, edges / (2 * degree));
+        break;
+      case ERDOS_RENYI:
+      case POWER_LAW:
+      default:
+        verticies = Math.max(2, edges / degree);
+        break;
+    }
+    return new GraphGenerator(shape, verticies, degree, seed);
+  }
+
+  private static long edge(final int source, final int destination) {
+    return (long) source << Integer.SIZE | destination;
+  }
+
+  private static int source(final long edge) {
+    return (int) (edge >>> Integer.SIZE);
+  }
+
+  private static int destination(final long edge) {
+    return (int) edge;
+  }
+
+  /**
+   * Sorts the edges and removes any duplicates.
+   *
+   * @param edges The edges, packed into longs.
+   * @return The sorted edges, with no duplicates.
+   */
+  private static long[] unique(final long[] edges) {
+    Arrays.parallelSort(edges);
+    int count = 0;
+    for (int i = 0; i < edges.length; i++) {
+      if (i == 0 || edges[i] != edges[i - 1]) {
+        edges[count++] = edges[i];
+      }
+    }
+    return Arrays.copyOf(edges, count);
+  }
+
+  private static long[] erdosRenyi(final int n, final int degree, final Random random) {
+    final long m = Math.min((long) n * degree, (long) n * n);
+    checkSize(m);
+
+    // Draw random edges until there are enough different ones. Few are drawn twice in a sparse
+    // graph, so this rarely takes more than a couple of rounds.
+    long[] edges = new long[0];
+    while (edges.length < m) {
+      final long[] more = Arrays.copyOf(edges, (int) m);
+      for (int i = edges.length; i < more.length; i++) {
+        more[i] = edge(random.nextInt(n), random.nextInt(n));
+      }
+      edges = unique(more);
+    }
+    return edges;
+  }
+
+  private static long[] powerLaw(final int n, final int degree, final Random random) {
+    checkSize((long) n * (degree + 1));
+
+    // Every vertex is in the pool once, and again for every edge into it, so picking from the pool
+    // at random picks each vertex in proportion to its in-degree plus one.
+    final int[] pool = new int[n + n * degree];
+    int poolSize = 0;
+    final long[] edges = new long[n * degree];
+    int m = 0;
+    final int[] chosen = new int[degree];
+
+    for (int v = 0; v < n; v++) {
+      final int count = Math.min(v, degree);
+      for (int c = 0; c < count; c++) {
+        int target;
+        if (v <= degree) {
+          // There are too few earlier verticies to choose from, so use all of them.
+          target = c;
+        } else {
+          do {
+            target = pool[random.nextInt(poolSize)];
+          } while (contains(chosen, c, target));
+        }
+        chosen[c] = target;
+        edges[m++] = edge(v, target);
+      }
+      for (int c = 0; c < count; c++) {
+        pool[poolSize++] = chosen[c];
+      }
+      pool[poolSize++] = v;
+    }
+    return unique(Arrays.copyOf(edges, m));
+  }
+
+  private static boolean contains(final int[] array, final int length, final int value) {
+    for (int i = 0; i < length; i++) {
+      if (array[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static long[] chain(final int n) {
+    final long[] edges = new long[n - 1];
+    for (int v = 0; v < n - 1; v++) {
+      edges[v] = edge(v, v + 1);
+    }
+    return edges;
+  }
+
+  private static long[] star(final int n) {
+    final long[] edges = new long[n - 1];
+    for (int v = 1; v < n; v++) {
+      edges[v - 1] = edge(0, v);
+    }
+    return edges;
+  }
+
+  private static long[] clique(final int n) {
+    checkSize((long) n * (n - 1));
+    final long[] edges = new long[n * (n - 1)];
+    int i = 0;
+    for (int u = 0; u < n; u++) {
+      for (int v = 0; v < n; v++) {
+        if (u != v) {
+          edges[i++] = edge(u, v);
+        }
+      }
+    }
+    return edges;
+  }
+
+  private static long[] blocks(final int n, final int blockSize) {
+    long m = 0;
+    for (int first = 0; first < n; first += blockSize) {
+      final long size = Math.min(blockSize, n - first);
+      m += size * size;
+    }
+    checkSize(m);
+
+    final long[] edges = new long[(int) m];
+    int i = 0;
+    for (int first = 0; first < n; first += blockSize) {
+      final int end = Math.min(first + blockSize, n);
+      for (int u = first; u < end; u++) {
+        for (int v = first; v < end; v++) {
+          edges[i++] = edge(u, v);
+        }
+      }
+    }
+    return edges;
+  }
+
+  private static long[] reflexiveClosure(final long[] edges, final int n) {
+    checkSize((long) edges.length + n);
+    final long[] closure = Arrays.copyOf(edges, edges.length + n);
+    for (int v = 0; v < n; v++) {
+      closure[edges.length + v] = edge(v, v);
+    }
+    return unique(closure);
+  }
+
+  private static long[] symmetricClosure(final long[] edges) {
+    checkSize(2L * edges.length);
+    final long[] closure = Arrays.copyOf(edges, 2 * edges.length);
+    for (int i = 0; i < edges.length; i++) {
+      closure[edges.length + i] = edge(destination(edges[i]), source(edges[i]));
+    }
+    return unique(closure);
+  }
+
+  private static void checkSize(final long edges) {
+    if (edges > MAX_EDGES) {
+      throw new IllegalArgumentException("A graph can have at most " + MAX_EDGES + " edges");
+    }
+  }
+
+  /**
+   * Gets the number of verticies in the graph.
+   *
+   * @return The number of verticies.
+   */
+  public int getVerticies() {
+    return outOffsets.length - 1;
+  }
+
+  /**
+   * Gets the number of edges in the graph.
+   *
+   * @return The number of edges.
+   */
+  public int getEdges() {
+    return outTargets.length;
+  }
+
+  private boolean hasEdge(final int source, final int destination) {
+    return Arrays.binarySearch(outTargets, outOffsets[source], outOffsets[source + 1], destination)
+        >= 0;
+  }
+
+  /**
+   * Writes the graph as a DOT file, with one statement on each line so that it can be read by
+   * every loader. Verticies with no edges are written as statements of their own.
+   *
+   * @param file The file to write.
+   * @throws IOException If the file cannot be written.
+   */
+  public void writeDot(final Path file) throws IOException {
+    final boolean[] hasEdge = new boolean[getVerticies()];
+    for (final int target : outTargets) {
+      hasEdge[target] = true;
+    }
+
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write("digraph " + shape.toString().toLowerCase() + " {");
+      writer.newLine();
+      for (int v = 0; v < getVerticies(); v++) {
+        if (outOffsets[v] == outOffsets[v + 1] && !hasEdge[v]) {
+          writer.write(" " + v + ";");
+          writer.newLine();
+        }
+        for (int i = outOffsets[v]; i < outOffsets[v + 1]; i++) {
+          writer.write(" " + v + " -> " + outTargets[i] + ";");
+          writer.newLine();
+        }
+      }
+      writer.write("}");
+      writer.newLine();
+    }
+  }
+
+  /**
+   * Writes the graph as a binary snapshot.
+   *
+   * @param file The file to write.
+   * @throws IOException If the file cannot be written.
+   */
+  public void writeSnapshot(final Path file) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      GraphSnapshot.writeNumbered(outOffsets, outTargets, channel);
+    }
+  }
+
+  /**
+   * Builds the graph in memory, in the numerical order that the calculator keeps its graphs in,
+   * without writing it to a file first.
+   *
+   * @return The graph.
+   */
+  public Graph<String> toGraph() {
+    final GraphBuilder builder = new GraphBuilder();
+    final GraphBuilder.Edges edges = builder.edges();
+    // The verticies are numbered in the order they are added, so each is numbered by its name.
+    for (int v = 0; v < getVerticies(); v++) {
+      builder.vertex(String.valueOf(v));
+    }
+    for (int v = 0; v < getVerticies(); v++) {
+      for (int i = outOffsets[v]; i < outOffsets[v + 1]; i++) {
+        edges.add(v, outTargets[i]);
+      }
+    }
+    return builder.build(VertexOrder.numerical());
+  }
+
+  /**
+   * Writes the properties the graph is expected to have, one {@code key=value} on each line. The
+   * roots are given as a count, followed by the first few in the same format that {@link
+   * Command#LIST_ROOT_VERTICIES} prints them in.
+   *
+   * @param file The file to write.
+   * @throws IOException If the file cannot be written.
+   */
+  public void writeExpected(final Path file) throws IOException {
+    final int n = getVerticies();
+    final int m = getEdges();
+
+    int selfLoops = 0;
+    boolean symmetric = true;
+    boolean antiSymmetric = true;
+    boolean transitive = true;
+    final int[] inDegrees = new int[n];
+    for (int u = 0; u < n; u++) {
+      for (int i = outOffsets[u]; i < outOffsets[u + 1]; i++) {
+        final int v = outTargets[i];
+        inDegrees[v]++;
+        if (u == v) {
+          selfLoops++;
+          continue;
+        }
+        final boolean reversed = hasEdge(v, u);
+        symmetric &= reversed;
+        antiSymmetric &= !reversed;
+
+        // Every path u -> v -> w needs an edge u -> w.
+        for (int j = outOffsets[v]; transitive && j < outOffsets[v + 1]; j++) {
+          transitive = hasEdge(u, outTargets[j]);
+        }
+      }
+    }
+    final boolean reflexive = selfLoops == n;
+    final boolean equivalence = reflexive && symmetric && transitive;
+
+    // A vertex is a root if it has no incoming edges and some outgoing edges. In an equivalence
+    // relation, the minimum of each class is a root too. The class of a vertex is its row, and
+    // the rows are sorted, so the minimum of a class is the vertex whose row starts with itself.
+    final boolean[] isRoot = new boolean[n];
+    for (int v = 0; v < n; v++) {
+      isRoot[v] |= inDegrees[v] == 0 && outOffsets[v] < outOffsets[v + 1];
+      // Every row of a reflexive graph has an edge, so its first entry can always be read.
+      final boolean firstInClass = equivalence && outTargets[outOffsets[v]] == v;
+      isRoot[v] |= firstInClass && m > outOffsets[v + 1] - outOffsets[v];
+    }
+    int roots = 0;
+    final StringJoiner firstRoots = new StringJoiner(", ", "[", "]");
+    for (int v = 0; v < n; v++) {
+      if (isRoot[v] && roots++ < SIDECAR_ROOTS) {
+        firstRoots.add(String.valueOf(v));
+      }
+    }
+
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writeProperty(writer, "shape", shape);
+      writeProperty(writer, "degree", degree);
+      writeProperty(writer, "seed", seed);
+      writeProperty(writer, "verticies", n);
+      writeProperty(writer, "edges", m);
+      writeProperty(writer, "selfLoops", selfLoops);
+      writeProperty(writer, "reflexive", reflexive);
+      writeProperty(writer, "symmetric", symmetric);
+      writeProperty(writer, "antiSymmetric", antiSymmetric);
+      writeProperty(writer, "transitive", transitive);
+      writeProperty(writer, "equivalence", equivalence);
+      writeProperty(writer, "roots", roots);
+      writeProperty(writer, "firstRoots", firstRoots);
+    }
+  }
+
+  private static void writeProperty(
+      final BufferedWriter writer, final String key, final Object value) throws IOException {
+    writer.write(key + "=" + value);
+    writer.newLine();
+  }
+
+  /**
+   * Generates a graph and writes it to the test cases folder as {@code <NAME>.txt}, {@code
+   * <NAME>.snapshot} and {@code <NAME>.properties}.
+   *
+   * <p>Usage: {@code <SHAPE> <VERTICIES> <NAME> [DEGREE] [SEED]}, for example {@code mvn
+   * exec:java@generate -Dexec.args="POWER_LAW 1000000 generated/power-law"}. Graphs named under
+   * {@code generated/} are not committed.
+   *
+   * @param args The command line arguments.
+   * @throws IOException If the files cannot be written.
+   */
+  public static void main(final String[] args) throws IOException {
+    if (args.length < 3 || args.length > 5) {
+      System.out.println(
+          "Usage: <" + Arrays.toString(Shape.values()) + "> <VERTICIES> <NAME> [DEGREE] [SEED]");
+      return;
+    }
+
+    final Shape shape = Shape.valueOf(args[0].toUpperCase());
+    final int verticies = Integer.parseInt(args[1]);
+    final String name = args[2];
+    final int degree = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_DEGREE;
+    final long seed = args.length > 4 ? Long.parseLong(args[4]) : DEFAULT_SEED;
+
+    final GraphGenerator generator = new GraphGenerator(shape, verticies, degree, seed);
+    final Path folder = TESTCASES.resolve(name).getParent();
+    if (folder != null) {
+      Files.createDirectories(folder);
+    }
+    generator.writeDot(TESTCASES.resolve(name + ".txt"));
+    generator.writeSnapshot(TESTCASES.resolve(name + ".snapshot"));
+    generator.writeExpected(TESTCASES.resolve(name + ".properties"));
+    System.out.println(
+        "Generated "
+            + name
+            + " with "
+            + generator.getVerticies()
+            + " verticies and "
+            + generator.getEdges()
+            + " edges");
+  }
+}
@@ -0,0 +1,29 @@
+package nz.ac.auckland.se281;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder event of a graph file being opened, so a recording shows how long each
+ * {@link Loader} took and how large the graph it read was.
+ */
+@Name("nz.ac.auckland.se281.GraphLoad")
+@Label("Graph Load")
+@Category("Graph Calculator")
+@Description("A graph file being read into a graph calculator")
+class GraphLoadEvent extends Event {
+  @Label("File")
+  String file;
+
+  @Label("Loader")
+  String loader;
+
+  @Label("Verticies")
+  int verticies;
+
+  @Label("Edges")
+  int edges;
+}
@@ -0,0 +1,16 @@
+package nz.ac.auckland.se281;
+
+/** The ways that {@link Command#OPEN_FILE} can read a graph file. */
+public enum Loader {
+  /** Parse the whole file with the DOT parser library, then copy the graph out of it. */
+  PARSER,
+
+  /** Stream the file through {@link DotReader}, adding each edge as it is read. */
+  STREAMING,
+
+  /** Memory-map the file and read chunks of lines in parallel with {@link MappedDotReader}. */
+  MAPPED,
+
+  /** Memory-map a binary snapshot written by {@link Command#SAVE_SNAPSHOT}. */
+  SNAPSHOT
+}
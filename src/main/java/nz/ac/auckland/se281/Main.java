@@ -1,6 +1,11 @@
 package nz.ac.auckland.se281;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -11,7 +16,16 @@ import java.util.Scanner;
 public class Main {
   private static final String COMMAND_PREFIX = "graph-calculator> ";
 
-  public static void main(final String[] args) {
+  public static void main(final String[] args) throws IOException, InterruptedException {
+    // With arguments, run a batch of commands without prompting for them.
+    if (args.length > 0) {
+      final Batch batch = Batch.parse(args);
+      if (batch != null) {
+        batch.run();
+      }
+      return;
+    }
+
     new Main(new Scanner(System.in)).start();
   }
 
@@ -46,6 +60,11 @@ public class Main {
 
   private GraphCalculator calculator;
 
+  private Loader loader = Loader.PARSER;
+
+  // The measurements of every command, or null if instrumentation is off.
+  private CommandStats stats;
+
   /**
    * Create a new command line interface.
    *
@@ -55,6 +74,11 @@ public class Main {
     this.scanner = scanner;
   }
 
+  /** Create a new command line interface that is given its commands, for a {@link Batch}. */
+  Main() {
+    this(null);
+  }
+
   /** Process commands from the user for the graph calculator command line interface. */
   public void start() {
     System.out.println(help());
@@ -68,6 +92,20 @@ public class Main {
     } while (processCommand(command));
   }
 
+  /**
+   * Process the commands in order, without the help menu or prompts, until they run out or one of
+   * them is the exit command. The file opened by one command stays open for the next.
+   *
+   * @param commands The commands to process.
+   */
+  void runAll(final List<String> commands) {
+    for (final String command : commands) {
+      if (!processCommand(command)) {
+        return;
+      }
+    }
+  }
+
   /**
    * Execute a command entered by the user and determine if more commands are expected.
    *
@@ -106,21 +144,68 @@ public class Main {
     // or get help if there is no file.
     if (calculator == null
         && command != Command.OPEN_FILE
+        && command != Command.SET_LOADER
+        && command != Command.LOAD_SNAPSHOT
+        && command != Command.INSTRUMENT
+        && command != Command.STATS
+        && command != Command.EXPORT_STATS
         && command != Command.EXIT
         && command != Command.HELP) {
       MessageCli.FILE_NOT_OPEN.printMessage();
       return true;
     }
 
+    // Measure every command other than those that control or report the measurements.
+    CommandStats.Sample sample = null;
+    if (stats != null && isMeasured(command)) {
+      if (calculator != null) {
+        calculator.setCounters(stats.getCounters());
+      }
+      sample = stats.start(command, Arrays.copyOfRange(args, 1, args.length));
+    }
+
     switch (command) {
       case OPEN_FILE:
         final String filename = args[1];
 
         try {
-          calculator = new GraphCalculator(filename);
+          calculator = new GraphCalculator(filename, loader);
           MessageCli.OPENED_FILE_SUCCESSFULLY.printMessage(filename);
         } catch (FileNotFoundException e) {
           MessageCli.FILE_NOT_FOUND.printMessage(filename);
+        } catch (final IllegalArgumentException | UncheckedIOException e) {
+          MessageCli.FILE_INVALID.printMessage(filename);
+        }
+        break;
+      case LOAD_SNAPSHOT:
+        final String snapshotName = args[1];
+
+        try {
+          calculator = new GraphCalculator(snapshotName, Loader.SNAPSHOT);
+          MessageCli.OPENED_FILE_SUCCESSFULLY.printMessage(snapshotName);
+        } catch (final FileNotFoundException e) {
+          MessageCli.FILE_NOT_FOUND.printMessage(snapshotName);
+        } catch (final UncheckedIOException e) {
+          MessageCli.SNAPSHOT_INVALID.printMessage(snapshotName);
+        }
+        break;
+      case SAVE_SNAPSHOT:
+        try {
+          calculator.saveSnapshot(args[1]);
+          MessageCli.SNAPSHOT_SAVED.printMessage(args[1]);
+        } catch (final UncheckedIOException e) {
+          MessageCli.SNAPSHOT_NOT_SAVED.printMessage(args[1]);
+        }
+        break;
+      case SET_LOADER:
+        final String loaderStr = args[1].toUpperCase();
+
+        try {
+          loader = Loader.valueOf(loaderStr);
+          MessageCli.LOADER_SELECTED.printMessage(loader.toString());
+        } catch (final IllegalArgumentException e) {
+          MessageCli.LOADER_NOT_FOUND.printMessage(
+              loaderStr, Arrays.toString(Loader.values()));
         }
         break;
       case INFO:
@@ -150,18 +235,67 @@ public class Main {
       case COMPUTE_EQUIVALENCE:
         calculator.printEquivalenceClass(args[1]);
         break;
+      case ANALYZE:
+        calculator.printAnalysis();
+        break;
+      case ADD_EDGE:
+        calculator.addEdge(args[1], args[2]);
+        break;
+      case REMOVE_EDGE:
+        calculator.removeEdge(args[1], args[2]);
+        break;
       case GRAPH_SEARCH_IBFS:
         calculator.printIterativeBreadthFirstSearch();
         break;
       case GRAPH_SEARCH_IDFS:
         calculator.printDepthFirstSearch();
         break;
+      case GRAPH_SEARCH_PBFS:
+        calculator.printParallelBreadthFirstSearch();
+        break;
       case GRAPH_SEARCH_RBFS:
         calculator.printRecursiveBreadthFirstSearch();
         break;
       case GRAPH_SEARCH_RDFS:
         calculator.printRecursiveDepthFirstSearch();
         break;
+      case INSTRUMENT:
+        final String instrumentStr = args[1].toUpperCase();
+
+        if (instrumentStr.equals("ON")) {
+          // Keep the measurements so far if it is already on.
+          stats = stats == null ? new CommandStats() : stats;
+          MessageCli.INSTRUMENT_ON.printMessage();
+        } else if (instrumentStr.equals("OFF")) {
+          stats = null;
+          if (calculator != null) {
+            calculator.setCounters(null);
+          }
+          MessageCli.INSTRUMENT_OFF.printMessage();
+        } else {
+          MessageCli.INSTRUMENT_NOT_FOUND.printMessage(args[1]);
+        }
+        break;
+      case STATS:
+        if (stats == null) {
+          MessageCli.STATS_NOT_RECORDED.printMessage();
+        } else {
+          stats.print();
+        }
+        break;
+      case EXPORT_STATS:
+        if (stats == null) {
+          MessageCli.STATS_NOT_RECORDED.printMessage();
+          break;
+        }
+
+        try {
+          stats.export(Path.of(args[1]));
+          MessageCli.STATS_EXPORTED.printMessage(args[1]);
+        } catch (final IOException e) {
+          MessageCli.STATS_NOT_EXPORTED.printMessage(args[1]);
+        }
+        break;
       case EXIT:
         MessageCli.END.printMessage();
 
@@ -172,10 +306,28 @@ public class Main {
         break;
     }
 
+    if (sample != null) {
+      sample.finish();
+    }
+
     // Signal that another command is expected.
     return true;
   }
 
+  /**
+   * Check if a command does work that should be measured while instrumentation is on.
+   *
+   * @param command The command to check.
+   * @return If the command should be measured.
+   */
+  private boolean isMeasured(final Command command) {
+    return command != Command.INSTRUMENT
+        && command != Command.STATS
+        && command != Command.EXPORT_STATS
+        && command != Command.HELP
+        && command != Command.EXIT;
+  }
+
   /**
    * Check that the correct number of arguments were provided for the command.
    *
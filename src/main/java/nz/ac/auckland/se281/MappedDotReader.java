@@ -0,0 +1,176 @@
+package nz.ac.auckland.se281;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import nz.ac.auckland.se281.datastructures.GraphBuilder;
+
+/**
+ * A parallel reader for large DOT graph files. The file is memory-mapped, split into chunks at line
+ * boundaries, and each chunk is read by its own {@link DotReader} on the common fork-join pool. The
+ * readers share the dictionary of one {@link GraphBuilder}, so each name is stored once, and each
+ * keeps its edges as pairs of numbers, so nothing has to be merged once the chunks are read.
+ *
+ * <p>Because chunks are split between lines, every statement must fit on a single line, which is
+ * how graph exports are normally written. Block comments and attribute lists that span lines may
+ * be split between two chunks.
+ */
+public class MappedDotReader {
+  // Chunks are never smaller than this, so small files are read by a single thread.
+  private static final long MIN_CHUNK_SIZE = 1 << 20;
+
+  // A single mapping cannot be larger than this.
+  private static final long MAX_CHUNK_SIZE = 1 << 30;
+
+  private static final int SCAN_SIZE = 1 << 12;
+
+  private final FileChannel channel;
+
+  /**
+   * Creates a new reader for a DOT file.
+   *
+   * @param channel The open channel of the file to read.
+   */
+  public MappedDotReader(final FileChannel channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * Reads every statement and adds its verticies and edges to the builder.
+   *
+   * @param builder The builder to add each vertex and edge to.
+   * @throws IOException If the file cannot be read.
+   * @throws IllegalArgumentException If an edge has no vertex at its end.
+   */
+  public void read(final GraphBuilder builder) throws IOException {
+    final long[] bounds = split();
+
+    // The lists of edges are asked for in the order of the chunks, so the file order is kept.
+    final GraphBuilder.Edges[] chunks = new GraphBuilder.Edges[bounds.length - 1];
+    for (int i = 0; i < chunks.length; i++) {
+      chunks[i] = builder.edges();
+    }
+
+    try {
+      IntStream.range(0, chunks.length)
+          .parallel()
+          .forEach(i -> readChunk(builder, chunks[i], bounds[i], bounds[i + 1]));
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Splits the file into chunks of about equal size that each start at the beginning of a line.
+   *
+   * @return The start of each chunk, followed by the size of the file.
+   * @throws IOException If the file cannot be read.
+   */
+  private long[] split() throws IOException {
+    final long size = channel.size();
+    final int processors = Runtime.getRuntime().availableProcessors();
+    final long count =
+        Math.max(
+            Math.min(processors, size / MIN_CHUNK_SIZE),
+            (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+
+    final List<Long> bounds = new ArrayList<>();
+    bounds.add(0L);
+
+    for (long i = 1; i < count; i++) {
+      final long start = nextLine(size * i / count);
+
+      if (start > bounds.get(bounds.size() - 1) && start < size) {
+        bounds.add(start);
+      }
+    }
+
+    bounds.add(size);
+    return bounds.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  /**
+   * Finds the start of the first line at or after the given position.
+   *
+   * @param position The position to search from.
+   * @return The position after the next line break, or the size of the file if there is none.
+   * @throws IOException If the file cannot be read.
+   */
+  private long nextLine(long position) throws IOException {
+    final ByteBuffer scan = ByteBuffer.allocate(SCAN_SIZE);
+
+    while (true) {
+      scan.clear();
+
+      final int read = channel.read(scan, position);
+
+      if (read <= 0) {
+        return channel.size();
+      }
+
+      for (int i = 0; i < read; i++) {
+        if (scan.get(i) == '\n') {
+          return position + i + 1;
+        }
+      }
+
+      position += read;
+    }
+  }
+
+  /**
+   * Maps one chunk of the file and reads it into the builder.
+   *
+   * @param builder The builder to add each vertex to.
+   * @param edges The list to add each edge of the chunk to.
+   * @param start The position of the first byte of the chunk.
+   * @param end The position after the last byte of the chunk.
+   */
+  private void readChunk(
+      final GraphBuilder builder,
+      final GraphBuilder.Edges edges,
+      final long start,
+      final long end) {
+    try {
+      final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+      final Reader reader =
+          new InputStreamReader(new ByteBufferInputStream(buffer), StandardCharsets.UTF_8);
+      new DotReader(reader).read(builder, edges);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** An input stream over the remaining bytes of a buffer, which are read without copying. */
+  private static class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    private ByteBufferInputStream(final ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) {
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+
+      final int count = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, count);
+      return count;
+    }
+  }
+}
@@ -15,7 +15,26 @@ public enum MessageCli {
   OPENED_FILE_SUCCESSFULLY("Successfully opened graph from file %s"),
   FILE_NOT_OPEN("Error: no valid file open"),
   FILE_NOT_FOUND("Error: file '%s' not found in `testcases` folder"),
+  FILE_INVALID("Error: file '%s' could not be read as a graph"),
+  LOADER_SELECTED("Files will be opened with the %s loader"),
+  LOADER_NOT_FOUND("Error: loader '%s' not found, choose one of %s"),
+  SNAPSHOT_SAVED("Successfully saved graph snapshot to file %s"),
+  SNAPSHOT_NOT_SAVED("Error: could not save graph snapshot to file '%s'"),
+  SNAPSHOT_INVALID("Error: file '%s' is not a valid graph snapshot"),
   INFO("File name: %s"),
+  INSTRUMENT_ON("Instrumentation is on, every command will be measured"),
+  INSTRUMENT_OFF("Instrumentation is off"),
+  INSTRUMENT_NOT_FOUND("Error: '%s' is not ON or OFF"),
+  STATS_NOT_RECORDED("Error: instrumentation is off, turn it on with INSTRUMENT ON"),
+  STATS_EXPORTED("Successfully exported command statistics to file %s"),
+  STATS_NOT_EXPORTED("Error: could not export command statistics to file '%s'"),
+  EDGE_ADDED("Added edge %s -> %s"),
+  EDGE_ALREADY_EXISTS("Error: edge %s -> %s is already in the graph"),
+  EDGE_REMOVED("Removed edge %s -> %s"),
+  EDGE_NOT_FOUND("Error: edge %s -> %s is not in the graph"),
+  BATCH_GRAPH("==> %s <=="),
+  BATCH_NOT_READ("Error: could not read file '%s'"),
+  BATCH_FAILED("Error: the commands on graph '%s' failed: %s"),
 
   GRAPH_REFLEXIVE("The graph is %sreflexive"),
   GRAPH_SYMMETRIC("The graph is %ssymmetric"),
@@ -23,6 +42,10 @@ public enum MessageCli {
   GRAPH_EQUIVALENCE("The graph is %san equivalence relation"),
   GRAPH_TRANSITIVE("The graph is %stransitive"),
 
+  GRAPH_SIZE("The graph has %s verticies and %s edges (%s with self-loops)"),
+  GRAPH_ROOTS("Root verticies: %s"),
+  GRAPH_DEGREES("%s-degree: min %s, max %s, average %s"),
+
   END("You closed the terminal. Goodbye.");
 
   private final String msg;
@@ -0,0 +1,215 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The verticies and edges of a graph that is being changed, stored in hash sets so each change is
+ * O(1). Every change also updates the counts that reflexivity, symmetry and anti-symmetry depend
+ * on, and the set of verticies with no incoming edges and some outgoing edges, so those properties
+ * never need the whole graph to be checked again.
+ *
+ * @param <T> The type of each vertex.
+ */
+class AdjacencyIndex<T> {
+
+  /** A vertex, with the order it was added in and its neighbours in both directions. */
+  private static class Node<T> {
+    private final int sequence;
+    private final Set<T> out = new HashSet<>();
+    private final Set<T> in = new HashSet<>();
+
+    Node(int sequence) {
+      this.sequence = sequence;
+    }
+  }
+
+  // The verticies in the order they were added in.
+  private final Map<T, Node<T>> nodes = new LinkedHashMap<>();
+  private int nextSequence;
+
+  private int edgeCount;
+
+  // The number of verticies with an edge to themselves.
+  private int selfLoops;
+
+  // The number of edges between different verticies whose reverse edge is also in the graph.
+  private int reversedEdges;
+
+  // The verticies that have no incoming edges and at least one outgoing edge.
+  private final Set<T> sources = new HashSet<>();
+
+  /**
+   * Creates the index of a compact graph, with the verticies added in id order.
+   *
+   * @param graph the graph to index.
+   */
+  AdjacencyIndex(CompactGraph<T> graph) {
+    for (int v = 0; v < graph.size(); v++) {
+      addVertex(graph.vertex(v));
+    }
+    for (int v = 0; v < graph.size(); v++) {
+      for (int i = graph.outStart(v); i < graph.outEnd(v); i++) {
+        addEdge(graph.vertex(v), graph.vertex(graph.outTarget(i)));
+      }
+    }
+  }
+
+  /**
+   * It adds a vertex with no edges.
+   *
+   * @param vertex the vertex to add.
+   * @return the boolean value of whether the vertex was added, or was already in the graph.
+   */
+  boolean addVertex(T vertex) {
+    if (nodes.containsKey(vertex)) {
+      return false;
+    }
+    nodes.put(vertex, new Node<>(nextSequence++));
+    return true;
+  }
+
+  /**
+   * It removes a vertex and every edge into or out of it.
+   *
+   * @param vertex the vertex to remove.
+   * @return the boolean value of whether the vertex was removed, or was not in the graph.
+   */
+  boolean removeVertex(T vertex) {
+    Node<T> node = nodes.get(vertex);
+    if (node == null) {
+      return false;
+    }
+    for (T target : new ArrayList<>(node.out)) {
+      removeEdge(vertex, target);
+    }
+    for (T source : new ArrayList<>(node.in)) {
+      removeEdge(source, vertex);
+    }
+    nodes.remove(vertex);
+    return true;
+  }
+
+  /**
+   * It adds an edge, adding either end that is not in the graph yet.
+   *
+   * @param source the source of the edge.
+   * @param destination the destination of the edge.
+   * @return the boolean value of whether the edge was added, or was already in the graph.
+   */
+  boolean addEdge(T source, T destination) {
+    addVertex(source);
+    addVertex(destination);
+    Node<T> from = nodes.get(source);
+    Node<T> to = nodes.get(destination);
+    if (!from.out.add(destination)) {
+      return false;
+    }
+    to.in.add(source);
+    edgeCount++;
+
+    if (from == to) {
+      selfLoops++;
+    } else if (to.out.contains(source)) {
+      // Both this edge and its reverse now have a reverse.
+      reversedEdges += 2;
+    }
+    updateSource(source, from);
+    updateSource(destination, to);
+    return true;
+  }
+
+  /**
+   * It removes an edge, keeping both of its ends in the graph.
+   *
+   * @param source the source of the edge.
+   * @param destination the destination of the edge.
+   * @return the boolean value of whether the edge was removed, or was not in the graph.
+   */
+  boolean removeEdge(T source, T destination) {
+    Node<T> from = nodes.get(source);
+    Node<T> to = nodes.get(destination);
+    if (from == null || to == null || !from.out.remove(destination)) {
+      return false;
+    }
+    to.in.remove(source);
+    edgeCount--;
+
+    if (from == to) {
+      selfLoops--;
+    } else if (to.out.contains(source)) {
+      reversedEdges -= 2;
+    }
+    updateSource(source, from);
+    updateSource(destination, to);
+    return true;
+  }
+
+  private void updateSource(T vertex, Node<T> node) {
+    if (node.in.isEmpty() && !node.out.isEmpty()) {
+      sources.add(vertex);
+    } else {
+      sources.remove(vertex);
+    }
+  }
+
+  /**
+   * It checks if every vertex has an edge to itself.
+   *
+   * @return the boolean value of whether the graph is reflexive or not.
+   */
+  boolean isReflexive() {
+    return selfLoops == nodes.size();
+  }
+
+  /**
+   * It checks if every edge between different verticies has a reverse edge.
+   *
+   * @return the boolean value of whether the graph is symmetric or not.
+   */
+  boolean isSymmetric() {
+    return reversedEdges == edgeCount - selfLoops;
+  }
+
+  /**
+   * It checks if no edge between different verticies has a reverse edge.
+   *
+   * @return the boolean value of whether the graph is anti-symmetric or not.
+   */
+  boolean isAntiSymmetric() {
+    return reversedEdges == 0;
+  }
+
+  /**
+   * It returns the verticies with no incoming edges and at least one outgoing edge, in the order
+   * they were added in.
+   *
+   * @return the array of verticies.
+   */
+  Object[] sources() {
+    List<T> sorted = new ArrayList<>(sources);
+    sorted.sort((v1, v2) -> Integer.compare(nodes.get(v1).sequence, nodes.get(v2).sequence));
+    return sorted.toArray();
+  }
+
+  /**
+   * It builds a compact graph of the verticies and edges as they are now.
+   *
+   * @param order the order to give the verticies ids in.
+   * @return the compact graph.
+   */
+  CompactGraph<T> toCompactGraph(VertexOrder<T> order) {
+    Set<Edge<T>> edges = new LinkedHashSet<>(edgeCount * 2);
+    for (Map.Entry<T, Node<T>> entry : nodes.entrySet()) {
+      for (T destination : entry.getValue().out) {
+        edges.add(new Edge<>(entry.getKey(), destination));
+      }
+    }
+    return new CompactGraph<>(new LinkedHashSet<>(nodes.keySet()), edges, order);
+  }
+}
@@ -0,0 +1,118 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * The result of a level-synchronous breadth first search, made by {@link
+ * Graph#parallelBreadthFirstSearch(boolean)}. Level 0 holds the roots, and every other level holds
+ * the verticies whose shortest path from a root has that many edges.
+ *
+ * @param <T> The type of each vertex.
+ */
+public class BreadthFirstLevels<T> {
+
+  private final CompactGraph<T> graph;
+  private final int[] depths;
+
+  // The visited verticies grouped by level, where level l is order[levelOffsets[l]] onwards.
+  private final int[] order;
+  private final int[] levelOffsets;
+
+  /**
+   * Creates the result of a search.
+   *
+   * @param graph the graph that was searched.
+   * @param depths the level of every vertex, or -1 if it was not reached.
+   * @param order the ids of the visited verticies, grouped by level.
+   * @param levelOffsets the start of each level in the order, followed by the end of the last.
+   */
+  BreadthFirstLevels(CompactGraph<T> graph, int[] depths, int[] order, int[] levelOffsets) {
+    this.graph = graph;
+    this.depths = depths;
+    this.order = order;
+    this.levelOffsets = levelOffsets;
+  }
+
+  /**
+   * It returns the level of the vertex, which is the fewest edges from a root to it.
+   *
+   * @param vertex the vertex to find the level of.
+   * @return the level of the vertex, or -1 if it is not reached from any root.
+   */
+  public int getDepth(T vertex) {
+    int id = graph.id(vertex);
+    return id < 0 ? -1 : depths[id];
+  }
+
+  /**
+   * It returns the number of levels that were searched.
+   *
+   * @return the number of levels.
+   */
+  public int getLevelCount() {
+    return levelOffsets.length - 1;
+  }
+
+  /**
+   * It returns the verticies in one level.
+   *
+   * @param level the level, starting from 0 for the roots.
+   * @return the read-only list of verticies in the level.
+   */
+  public List<T> getLevel(int level) {
+    return new OrderView(levelOffsets[level], levelOffsets[level + 1]);
+  }
+
+  /**
+   * It returns every level in order.
+   *
+   * @return the read-only list of levels.
+   */
+  public List<List<T>> getLevels() {
+    return new AbstractList<List<T>>() {
+      @Override
+      public List<T> get(int index) {
+        return getLevel(index);
+      }
+
+      @Override
+      public int size() {
+        return getLevelCount();
+      }
+    };
+  }
+
+  /**
+   * It returns every visited vertex, grouped by level.
+   *
+   * @return the read-only list of visited verticies.
+   */
+  public List<T> getVisitOrder() {
+    return new OrderView(0, order.length);
+  }
+
+  /** A read-only view of part of the visit order. */
+  private class OrderView extends AbstractList<T> {
+    private final int start;
+    private final int end;
+
+    OrderView(int start, int end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    public T get(int index) {
+      if (index < 0 || index >= end - start) {
+        throw new IndexOutOfBoundsException(index);
+      }
+      return graph.vertex(order[start + index]);
+    }
+
+    @Override
+    public int size() {
+      return end - start;
+    }
+  }
+}
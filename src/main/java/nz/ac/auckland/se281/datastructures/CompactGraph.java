@@ -0,0 +1,432 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A compact, read-only representation of a graph. Every vertex is interned to a dense integer id
+ * once, and the edges are stored in compressed sparse row (CSR) form: the out-neighbours of vertex
+ * {@code v} are {@code outTargets[outOffsets[v]]} to {@code outTargets[outOffsets[v + 1] - 1]}, and
+ * the in-neighbours are stored the same way in {@code inOffsets} and {@code inSources}.
+ *
+ * <p>Ids are assigned in the {@link VertexOrder} given when the graph is built, and every row is
+ * sorted by id with no duplicates, so scanning a row visits the neighbours in vertex order.
+ *
+ * @param <T> The type of each vertex.
+ */
+class CompactGraph<T> {
+
+  private final Object[] verticies;
+  private final Map<T, Integer> ids;
+
+  private final int[] outOffsets;
+  private final int[] outTargets;
+  private final int[] inOffsets;
+  private final int[] inSources;
+
+  /**
+   * Creates a compact graph from a set of verticies and edges.
+   *
+   * @param verticies the set of verticies in the graph.
+   * @param edges the set of edges in the graph.
+   * @param order the order that the verticies are given ids in.
+   */
+  CompactGraph(Set<T> verticies, Set<Edge<T>> edges, VertexOrder<T> order) {
+    // Intern every vertex, including any that only appear as the end of an edge.
+    Set<T> all = new LinkedHashSet<>(verticies);
+    for (Edge<T> edge : edges) {
+      all.add(edge.getSource());
+      all.add(edge.getDestination());
+    }
+
+    this.verticies = all.toArray();
+    order.sort(this.verticies);
+
+    this.ids = index(this.verticies);
+
+    int[] pairs = new int[2 * edges.size()];
+    int i = 0;
+    for (Edge<T> edge : edges) {
+      pairs[i++] = ids.get(edge.getSource());
+      pairs[i++] = ids.get(edge.getDestination());
+    }
+
+    this.outOffsets = new int[this.verticies.length + 1];
+    this.outTargets = placeRows(pairs, outOffsets);
+    this.inOffsets = transposeOffsets(outOffsets, outTargets);
+    this.inSources = transposeRows(outOffsets, outTargets, inOffsets);
+  }
+
+  /**
+   * Creates a compact graph from verticies and edges that were read as pairs of positions, in any
+   * order and possibly repeated, such as those read by a {@link GraphBuilder}.
+   *
+   * @param verticies the verticies, in the order they were read.
+   * @param pairs the source and then the destination of each edge, as positions in the array of
+   *     verticies. The pairs are overwritten with the ids of the verticies.
+   * @param order the order that the verticies are given ids in.
+   */
+  CompactGraph(Object[] verticies, int[] pairs, VertexOrder<T> order) {
+    this.verticies = verticies.clone();
+    order.sort(this.verticies);
+    this.ids = index(this.verticies);
+
+    int[] idOf = new int[verticies.length];
+    for (int v = 0; v < verticies.length; v++) {
+      idOf[v] = ids.get(cast(verticies[v]));
+    }
+    for (int i = 0; i < pairs.length; i++) {
+      pairs[i] = idOf[pairs[i]];
+    }
+
+    this.outOffsets = new int[this.verticies.length + 1];
+    this.outTargets = placeRows(pairs, outOffsets);
+    this.inOffsets = transposeOffsets(outOffsets, outTargets);
+    this.inSources = transposeRows(outOffsets, outTargets, inOffsets);
+  }
+
+  /**
+   * Creates a compact graph from verticies that already have ids and out-neighbour rows that are
+   * already sorted, such as a generated graph or a snapshot. The in-neighbour rows are found from
+   * them.
+   *
+   * @param verticies the verticies, in id order.
+   * @param outOffsets the start of the out-neighbour row of each vertex, followed by the end of the
+   *     last row.
+   * @param outTargets the sorted out-neighbour rows without duplicates.
+   */
+  CompactGraph(Object[] verticies, int[] outOffsets, int[] outTargets) {
+    this.verticies = verticies;
+    this.ids = index(verticies);
+    this.outOffsets = outOffsets;
+    this.outTargets = outTargets;
+    this.inOffsets = transposeOffsets(outOffsets, outTargets);
+    this.inSources = transposeRows(outOffsets, outTargets, inOffsets);
+  }
+
+  /**
+   * It maps every vertex to its id, which is its position in the array.
+   *
+   * @param verticies the verticies in id order.
+   * @return the map from each vertex to its id.
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> Map<T, Integer> index(Object[] verticies) {
+    Map<T, Integer> ids = new HashMap<>(verticies.length * 2);
+    for (int i = 0; i < verticies.length; i++) {
+      ids.put((T) verticies[i], i);
+    }
+    return ids;
+  }
+
+  /**
+   * It places every edge in the row of its source, by counting the out-degree of each vertex
+   * first, and then sorts each row and removes duplicate edges.
+   *
+   * @param pairs the source and then the destination id of each edge.
+   * @param offsets the array to fill with the start of each row, followed by the end of the last
+   *     row.
+   * @return the sorted rows without duplicates.
+   */
+  private static int[] placeRows(int[] pairs, int[] offsets) {
+    int n = offsets.length - 1;
+    int m = pairs.length / 2;
+    for (int i = 0; i < m; i++) {
+      offsets[pairs[2 * i] + 1]++;
+    }
+    for (int v = 0; v < n; v++) {
+      offsets[v + 1] += offsets[v];
+    }
+    int[] row = Arrays.copyOf(offsets, n);
+    int[] placed = new int[m];
+    for (int i = 0; i < m; i++) {
+      placed[row[pairs[2 * i]]++] = pairs[2 * i + 1];
+    }
+    return sortRows(offsets, placed);
+  }
+
+  /**
+   * It counts the in-degree of every vertex to find where each in-neighbour row starts.
+   *
+   * @param outOffsets the start of each out-neighbour row, followed by the end of the last row.
+   * @param outTargets the out-neighbour rows.
+   * @return the start of each in-neighbour row, followed by the end of the last row.
+   */
+  private static int[] transposeOffsets(int[] outOffsets, int[] outTargets) {
+    int n = outOffsets.length - 1;
+    int[] inOffsets = new int[n + 1];
+    for (int target : outTargets) {
+      inOffsets[target + 1]++;
+    }
+    for (int v = 0; v < n; v++) {
+      inOffsets[v + 1] += inOffsets[v];
+    }
+    return inOffsets;
+  }
+
+  /**
+   * It fills the in-neighbour rows, which are the transpose of the out-neighbour rows. Sources are
+   * visited in increasing order, so each in-neighbour row is filled already sorted.
+   *
+   * @param outOffsets the start of each out-neighbour row, followed by the end of the last row.
+   * @param outTargets the out-neighbour rows.
+   * @param inOffsets the start of each in-neighbour row, followed by the end of the last row.
+   * @return the in-neighbour rows.
+   */
+  private static int[] transposeRows(int[] outOffsets, int[] outTargets, int[] inOffsets) {
+    int n = outOffsets.length - 1;
+    int[] inSources = new int[outTargets.length];
+    int[] next = Arrays.copyOf(inOffsets, n);
+    for (int v = 0; v < n; v++) {
+      for (int i = outOffsets[v]; i < outOffsets[v + 1]; i++) {
+        inSources[next[outTargets[i]]++] = v;
+      }
+    }
+    return inSources;
+  }
+
+  /**
+   * Sorts every row of a CSR array and removes duplicate entries, updating the offsets in place.
+   *
+   * @param offsets the start of each row, followed by the end of the last row.
+   * @param entries the entries of every row.
+   * @return the sorted entries without duplicates.
+   */
+  private static int[] sortRows(int[] offsets, int[] entries) {
+    int write = 0;
+    int start = offsets[0];
+    for (int v = 0; v < offsets.length - 1; v++) {
+      int end = offsets[v + 1];
+      Arrays.sort(entries, start, end);
+      offsets[v] = write;
+      for (int i = start; i < end; i++) {
+        if (i == start || entries[i] != entries[i - 1]) {
+          entries[write++] = entries[i];
+        }
+      }
+      start = end;
+    }
+    offsets[offsets.length - 1] = write;
+    return write == entries.length ? entries : Arrays.copyOf(entries, write);
+  }
+
+  @SuppressWarnings("unchecked")
+  private T cast(Object vertex) {
+    return (T) vertex;
+  }
+
+  /**
+   * It returns the number of verticies in the graph.
+   *
+   * @return the number of verticies.
+   */
+  int size() {
+    return verticies.length;
+  }
+
+  /**
+   * It returns the number of distinct edges in the graph.
+   *
+   * @return the number of edges.
+   */
+  int edgeCount() {
+    return outTargets.length;
+  }
+
+  /**
+   * It returns the id of the vertex.
+   *
+   * @param vertex the vertex to find the id of.
+   * @return the id of the vertex, or -1 if the vertex is not in the graph.
+   */
+  int id(T vertex) {
+    Integer id = ids.get(vertex);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * It returns the vertex with the given id.
+   *
+   * @param id the id of the vertex.
+   * @return the vertex.
+   */
+  T vertex(int id) {
+    return cast(verticies[id]);
+  }
+
+  /**
+   * It returns the index of the first out-neighbour of the vertex in {@link #outTarget(int)}.
+   *
+   * @param id the id of the vertex.
+   * @return the start of the out-neighbour row.
+   */
+  int outStart(int id) {
+    return outOffsets[id];
+  }
+
+  /**
+   * It returns the index after the last out-neighbour of the vertex in {@link #outTarget(int)}.
+   *
+   * @param id the id of the vertex.
+   * @return the end of the out-neighbour row.
+   */
+  int outEnd(int id) {
+    return outOffsets[id + 1];
+  }
+
+  /**
+   * It returns the out-neighbour at the given index of the out-neighbour rows.
+   *
+   * @param index the index in the out-neighbour rows.
+   * @return the id of the out-neighbour.
+   */
+  int outTarget(int index) {
+    return outTargets[index];
+  }
+
+  /**
+   * It returns the index of the first in-neighbour of the vertex in {@link #inSource(int)}.
+   *
+   * @param id the id of the vertex.
+   * @return the start of the in-neighbour row.
+   */
+  int inStart(int id) {
+    return inOffsets[id];
+  }
+
+  /**
+   * It returns the index after the last in-neighbour of the vertex in {@link #inSource(int)}.
+   *
+   * @param id the id of the vertex.
+   * @return the end of the in-neighbour row.
+   */
+  int inEnd(int id) {
+    return inOffsets[id + 1];
+  }
+
+  /**
+   * It returns the in-neighbour at the given index of the in-neighbour rows.
+   *
+   * @param index the index in the in-neighbour rows.
+   * @return the id of the in-neighbour.
+   */
+  int inSource(int index) {
+    return inSources[index];
+  }
+
+  /**
+   * It returns the number of edges leaving the vertex.
+   *
+   * @param id the id of the vertex.
+   * @return the out-degree of the vertex.
+   */
+  int outDegree(int id) {
+    return outOffsets[id + 1] - outOffsets[id];
+  }
+
+  /**
+   * It returns the number of edges entering the vertex.
+   *
+   * @param id the id of the vertex.
+   * @return the in-degree of the vertex.
+   */
+  int inDegree(int id) {
+    return inOffsets[id + 1] - inOffsets[id];
+  }
+
+  /**
+   * It returns the out-neighbours of the vertex as a read-only view of its sorted row, so the
+   * neighbours are never copied or compared.
+   *
+   * @param id the id of the vertex.
+   * @return the set of out-neighbours, in id order.
+   */
+  Set<T> outNeighbours(int id) {
+    return new AbstractSet<T>() {
+      @Override
+      public Iterator<T> iterator() {
+        return new Iterator<T>() {
+          private int index = outOffsets[id];
+
+          @Override
+          public boolean hasNext() {
+            return index < outOffsets[id + 1];
+          }
+
+          @Override
+          public T next() {
+            if (index >= outOffsets[id + 1]) {
+              throw new NoSuchElementException();
+            }
+            return vertex(outTargets[index++]);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return outDegree(id);
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public boolean contains(Object o) {
+        int target = id((T) o);
+        return target >= 0 && hasEdge(id, target);
+      }
+    };
+  }
+
+  /**
+   * It checks if there is an edge between the two verticies, by binary searching the sorted row of
+   * the source.
+   *
+   * @param source the id of the source.
+   * @param destination the id of the destination.
+   * @return the boolean value of whether the edge exists or not.
+   */
+  boolean hasEdge(int source, int destination) {
+    return edgeIndex(source, destination) >= 0;
+  }
+
+  /**
+   * It returns the index of an edge in the out-neighbour rows, by binary searching the sorted row
+   * of the source.
+   *
+   * @param source the id of the source.
+   * @param destination the id of the destination.
+   * @return the index of the edge, or a negative number if there is no such edge.
+   */
+  int edgeIndex(int source, int destination) {
+    return Arrays.binarySearch(outTargets, outOffsets[source], outOffsets[source + 1], destination);
+  }
+
+  /**
+   * It checks if the out-neighbours of one vertex are all out-neighbours of another, by merging
+   * their sorted rows.
+   *
+   * @param subset the id of the vertex whose out-neighbours should be contained.
+   * @param superset the id of the vertex whose out-neighbours should contain them.
+   * @return the boolean value of whether the row of subset is contained in the row of superset.
+   */
+  boolean outRowContained(int subset, int superset) {
+    int j = outOffsets[superset];
+    int end = outOffsets[superset + 1];
+    for (int i = outOffsets[subset]; i < outOffsets[subset + 1]; i++) {
+      int target = outTargets[i];
+      while (j < end && outTargets[j] < target) {
+        j++;
+      }
+      if (j == end || outTargets[j] != target) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
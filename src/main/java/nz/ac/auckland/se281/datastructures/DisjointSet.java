@@ -0,0 +1,66 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * A disjoint-set (union-find) over the integers {@code 0} to {@code size - 1}. Sets are merged by
+ * rank and paths are compressed as they are followed, so every operation is near O(1).
+ */
+class DisjointSet {
+
+  private final int[] parent;
+  private final byte[] rank;
+
+  /**
+   * Creates a disjoint-set where every element is in a set of its own.
+   *
+   * @param size the number of elements.
+   */
+  DisjointSet(int size) {
+    this.parent = new int[size];
+    this.rank = new byte[size];
+    for (int i = 0; i < size; i++) {
+      parent[i] = i;
+    }
+  }
+
+  /**
+   * It returns the representative of the set that contains the element.
+   *
+   * @param element the element to find the set of.
+   * @return the representative element of the set.
+   */
+  int find(int element) {
+    int root = element;
+    while (parent[root] != root) {
+      root = parent[root];
+    }
+    // Point every element on the path directly at the root.
+    while (parent[element] != root) {
+      int next = parent[element];
+      parent[element] = root;
+      element = next;
+    }
+    return root;
+  }
+
+  /**
+   * It merges the sets that contain the two elements.
+   *
+   * @param first an element of the first set.
+   * @param second an element of the second set.
+   */
+  void union(int first, int second) {
+    int firstRoot = find(first);
+    int secondRoot = find(second);
+    if (firstRoot == secondRoot) {
+      return;
+    }
+    if (rank[firstRoot] < rank[secondRoot]) {
+      parent[firstRoot] = secondRoot;
+    } else if (rank[firstRoot] > rank[secondRoot]) {
+      parent[secondRoot] = firstRoot;
+    } else {
+      parent[secondRoot] = firstRoot;
+      rank[firstRoot]++;
+    }
+  }
+}
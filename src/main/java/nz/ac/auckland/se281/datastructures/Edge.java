@@ -1,5 +1,7 @@
 package nz.ac.auckland.se281.datastructures;
 
+import java.util.Objects;
+
 /**
  * An edge in a graph that connects two verticies.
  *
@@ -9,20 +11,51 @@ package nz.ac.auckland.se281.datastructures;
  */
 public class Edge<T> {
 
-  private T source;
-  private T destination;
+  private final T source;
+  private final T destination;
+  private final int hash;
 
   public Edge(T source, T destination) {
     this.source = source;
     this.destination = destination;
+    this.hash = 31 * Objects.hashCode(source) + Objects.hashCode(destination);
   }
 
   public T getSource() {
     return source;
-  } 
+  }
 
   public T getDestination() {
     return destination;
   }
 
+  /**
+   * Two edges are equal if they have equal sources and equal destinations.
+   *
+   * @param obj the object to compare with.
+   * @return the boolean value of whether the object is an equal edge or not.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Edge)) {
+      return false;
+    }
+    Edge<?> other = (Edge<?>) obj;
+    return hash == other.hash
+        && Objects.equals(source, other.source)
+        && Objects.equals(destination, other.destination);
+  }
+
+  /**
+   * It returns the hash code of the edge, which is computed once when the edge is created.
+   *
+   * @return the hash code of the edge.
+   */
+  @Override
+  public int hashCode() {
+    return hash;
+  }
 }
@@ -0,0 +1,193 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The partition of the verticies of a graph into the sets connected by its edges, built once with
+ * a {@link DisjointSet}. When the graph is an equivalence relation, these sets are exactly its
+ * equivalence classes.
+ *
+ * @param <T> The type of each vertex, that have a total ordering.
+ */
+class EquivalencePartition<T extends Comparable<T>> {
+
+  private final CompactGraph<T> graph;
+
+  // The class of every vertex, and the members of every class stored in compressed rows.
+  private final int[] classOf;
+  private final int[] classOffsets;
+  private final int[] members;
+
+  // The smallest member of every class, in the order of the graph.
+  private final int[] minimums;
+
+  // The members of each class as a set, created the first time the class is asked for.
+  private final List<Set<T>> classes;
+
+  /**
+   * Creates the partition of a compact graph.
+   *
+   * @param graph the graph to partition.
+   */
+  EquivalencePartition(CompactGraph<T> graph) {
+    this(graph, classesOf(graph));
+  }
+
+  /**
+   * Creates a partition of a compact graph from the class of every vertex, such as one read back
+   * from a snapshot.
+   *
+   * @param graph the graph that was partitioned.
+   * @param classOf the class of every vertex, numbered from zero in order of their first vertex.
+   */
+  EquivalencePartition(CompactGraph<T> graph, int[] classOf) {
+    this.graph = graph;
+    this.classOf = classOf;
+    int n = graph.size();
+
+    int count = 0;
+    for (int v = 0; v < n; v++) {
+      count = Math.max(count, classOf[v] + 1);
+    }
+
+    this.classOffsets = new int[count + 1];
+    for (int v = 0; v < n; v++) {
+      classOffsets[classOf[v] + 1]++;
+    }
+    for (int c = 0; c < count; c++) {
+      classOffsets[c + 1] += classOffsets[c];
+    }
+    this.members = new int[n];
+    this.minimums = new int[count];
+    int[] next = new int[count];
+    for (int c = 0; c < count; c++) {
+      next[c] = classOffsets[c];
+      minimums[c] = -1;
+    }
+    // Ids are in the order of the graph, so the first member of a class is its smallest.
+    for (int v = 0; v < n; v++) {
+      int c = classOf[v];
+      members[next[c]++] = v;
+      if (minimums[c] < 0) {
+        minimums[c] = v;
+      }
+    }
+
+    this.classes = new ArrayList<>(Collections.nCopies(count, null));
+  }
+
+  /**
+   * It finds the class of every vertex by joining the ends of every edge in a {@link DisjointSet}.
+   *
+   * @param graph the graph to partition.
+   * @return the class of every vertex, numbered from zero in order of their first vertex.
+   */
+  private static int[] classesOf(CompactGraph<?> graph) {
+    int n = graph.size();
+
+    DisjointSet sets = new DisjointSet(n);
+    for (int v = 0; v < n; v++) {
+      for (int i = graph.outStart(v); i < graph.outEnd(v); i++) {
+        sets.union(v, graph.outTarget(i));
+      }
+    }
+
+    int[] classOfRoot = new int[n];
+    int[] classOf = new int[n];
+    int count = 0;
+    for (int v = 0; v < n; v++) {
+      int root = sets.find(v);
+      if (classOfRoot[root] == 0) {
+        classOfRoot[root] = ++count;
+      }
+      classOf[v] = classOfRoot[root] - 1;
+    }
+    return classOf;
+  }
+
+  /**
+   * It returns the class that the vertex belongs to.
+   *
+   * @param id the id of the vertex.
+   * @return the number of the class.
+   */
+  int classOf(int id) {
+    return classOf[id];
+  }
+
+  /**
+   * It returns the smallest vertex, in the {@link VertexOrder} of the graph, in the class of the
+   * vertex.
+   *
+   * @param id the id of the vertex.
+   * @return the id of the smallest vertex in the same class.
+   */
+  int minimum(int id) {
+    return minimums[classOf[id]];
+  }
+
+  /**
+   * It returns the verticies in the same class as the vertex.
+   *
+   * @param id the id of the vertex.
+   * @return the unmodifiable set of verticies in the class.
+   */
+  Set<T> equivalenceClass(int id) {
+    int c = classOf[id];
+    Set<T> equivalenceClass = classes.get(c);
+    if (equivalenceClass == null) {
+      equivalenceClass = new ClassSet(classOffsets[c], classOffsets[c + 1]);
+      classes.set(c, equivalenceClass);
+    }
+    return equivalenceClass;
+  }
+
+  /** A read-only view of the members of one class. */
+  private class ClassSet extends AbstractSet<T> {
+    private final int start;
+    private final int end;
+
+    ClassSet(int start, int end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return new Iterator<T>() {
+        private int index = start;
+
+        @Override
+        public boolean hasNext() {
+          return index < end;
+        }
+
+        @Override
+        public T next() {
+          if (index >= end) {
+            throw new NoSuchElementException();
+          }
+          return graph.vertex(members[index++]);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return end - start;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+      int id = graph.id((T) o);
+      return id >= 0 && classOffsets[classOf[id]] == start;
+    }
+  }
+}
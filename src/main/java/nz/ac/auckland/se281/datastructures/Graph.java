@@ -1,12 +1,23 @@
 package nz.ac.auckland.se281.datastructures;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A graph that is composed of a set of verticies and edges.
@@ -17,142 +28,498 @@ import java.util.TreeSet;
  */
 public class Graph<T extends Comparable<T>> {
 
-  private class NumericalComparator implements Comparator<T> {
-    /**
-     * It overrides the NumericalComparator class to compare the verticies in reverse numerical
-     * order.
-     *
-     * @param o1 the first vertex to compare.
-     * @param o2 the second vertex to compare.
-     * @return the integer value of the comparison.
-     */
-    @Override
-    public int compare(T o1, T o2) {
-      Integer i1 = Integer.parseInt(o1.toString());
-      Integer i2 = Integer.parseInt(o2.toString());
-      return i1.compareTo(i2);
-    }
-  }
-
-  private class CustomQueue<T> {
-    private Node<T> tail;
-    private Node<T> head;
-
-    public boolean isEmpty() {
-      // Check if the queue is empty.
-      return head == null;
-    }
-
-    public void enqueue(T data) {
-      // Add a new node to the tail of the queue.
-      Node<T> newNode = new Node<>(data);
-      // Check if the queue is empty.
-      if (isEmpty()) {
-        head = newNode;
-        tail = newNode;
-      } else {
-        tail.next = newNode;
-        tail = newNode;
-      }
-    }
+  /**
+   * The properties of the graph that have been computed, each filled in the first time it is asked
+   * for. A cache belongs to one modification count of the graph.
+   */
+  private class PropertyCache {
+    private final int modCount;
 
-    public T dequeue() {
-      // Remove the head of the queue.
-      T data = head.data;
-      head = head.next;
-      if (head == null) {
-        tail = null;
-      }
-      return data;
-    }
+    private Boolean reflexive;
+    private Boolean symmetric;
+    private Boolean transitive;
+    private Boolean antiSymmetric;
+    private Set<T> roots;
+    private List<T> iterativeBreadthFirstSearch;
+    private List<T> iterativeDepthFirstSearch;
+    private List<T> recursiveBreadthFirstSearch;
+    private List<T> recursiveDepthFirstSearch;
+
+    // The edges as a bitset relation, and the partition of the verticies by the edges.
+    private RelationMatrix relation;
+    private EquivalencePartition<T> partition;
 
-    public T peek() {
-      // Return the head of the queue.
-      return head.data;
+    PropertyCache(int modCount) {
+      this.modCount = modCount;
     }
+  }
 
-    class Node<T> {
-      private T data;
-      private Node<T> next;
+  /**
+   * The system property that sets the stack size, in bytes, of the thread that the recursive
+   * searches run on, such as {@code -Dgraph.recursionStackSize=536870912}. Without it, the stack is
+   * sized from the graph.
+   */
+  public static final String RECURSION_STACK_SIZE_PROPERTY = "graph.recursionStackSize";
 
-      Node(T data) {
-        this.data = data;
-      }
+  // Graphs smaller than this are searched recursively on the calling thread, unless a stack size
+  // has been set.
+  private static final int RECURSION_THREAD_THRESHOLD = 1 << 12;
+
+  // The stack reserved for each vertex when the recursion thread is sized from the graph.
+  private static final long STACK_BYTES_PER_VERTEX = 256;
+
+  private static final long MIN_RECURSION_STACK_SIZE = 1 << 20;
+
+  // The verticies and edges, interned to integer ids and stored in compressed sparse rows. It is
+  // null after a change, until it is needed again.
+  private CompactGraph<T> compact;
+
+  // The order that ids are given to the verticies in.
+  private final VertexOrder<T> order;
+
+  // The verticies and edges in hash sets, created the first time the graph is changed.
+  private AdjacencyIndex<T> index;
+
+  // Counts changes to the graph, so that results cached before a change are never used.
+  private int modCount;
+
+  // The results computed since the graph last changed.
+  private PropertyCache cache;
+
+  // The stack size of the thread the recursive searches run on, or 0 to size it from the graph.
+  private long recursionStackSize = Math.max(0, Long.getLong(RECURSION_STACK_SIZE_PROPERTY, 0));
+
+  // The counts of the work done by the checks and searches, or null if they are not counted.
+  private GraphCounters counters;
+
+  /**
+   * Creates a new graph.
+   *
+   * @param verticies The set of verticies in the graph.
+   * @param edges The set of edges in the graph.
+   */
+  public Graph(Set<T> verticies, Set<Edge<T>> edges) {
+    this(verticies, edges, VertexOrder.numerical());
+  }
+
+  /**
+   * Creates a new graph, with its verticies kept in the given order. The roots, the adjacent
+   * verticies of each vertex and every search all follow this order.
+   *
+   * @param verticies The set of verticies in the graph.
+   * @param edges The set of edges in the graph.
+   * @param order The order to keep the verticies in.
+   */
+  public Graph(Set<T> verticies, Set<Edge<T>> edges, VertexOrder<T> order) {
+    this.compact = new CompactGraph<>(verticies, edges, order);
+    this.order = order;
+  }
+
+  /**
+   * Creates a new graph from verticies and edges that are already compacted, such as those read
+   * back from a snapshot.
+   *
+   * @param compact the compacted verticies and edges, with ids in vertex order.
+   * @param order the order the ids were given in, which the graph is kept in after it changes.
+   */
+  Graph(CompactGraph<T> compact, VertexOrder<T> order) {
+    this.compact = compact;
+    this.order = order;
+  }
+
+  /**
+   * Sets the stack size of the thread that the recursive searches run on. Each level of recursion
+   * uses a frame on this stack, so deep graphs such as long chains need a large stack. By default
+   * the stack size is taken from {@link #RECURSION_STACK_SIZE_PROPERTY}, or if that is not set, it
+   * is sized from the number of verticies and small graphs are searched on the calling thread.
+   *
+   * @param stackSize the stack size in bytes, or 0 to size it from the graph.
+   */
+  public void setRecursionStackSize(long stackSize) {
+    if (stackSize < 0) {
+      throw new IllegalArgumentException("The stack size cannot be negative: " + stackSize);
     }
+    this.recursionStackSize = stackSize;
   }
 
-  private class CustomStack<T> {
-    private CustomLinkedList<T> list;
+  /**
+   * Sets the counters that the checks and searches add the verticies they visit and the edges
+   * they scan to. Counting has a small cost, so it is off until counters are given.
+   *
+   * @param counters the counters to add to, or null to stop counting.
+   */
+  public void setCounters(GraphCounters counters) {
+    this.counters = counters;
+  }
 
-    public CustomStack() {
-      list = new CustomLinkedList<>();
+  /**
+   * It adds to the counters, if the graph is being counted.
+   *
+   * @param verticies the number of verticies visited.
+   * @param edges the number of edges scanned.
+   */
+  private void count(long verticies, long edges) {
+    if (counters != null) {
+      counters.add(verticies, edges);
     }
+  }
+
+  /**
+   * It counts a search, which visited every vertex in the set and scanned the row of each.
+   *
+   * @param visited the ids of the verticies visited by the search.
+   */
+  private void countSearch(BitSet visited) {
+    countSearch(compact(), visited);
+  }
 
-    public void push(T data) {
-      // Add a new node to the head of the stack.
-      list.addFirst(data);
+  /**
+   * It counts a search of a compact graph, which visited every vertex in the set and scanned the
+   * row of each.
+   *
+   * @param graph the compact graph that was searched.
+   * @param visited the ids of the verticies visited by the search.
+   */
+  private void countSearch(CompactGraph<T> graph, BitSet visited) {
+    if (counters == null) {
+      return;
+    }
+    long edges = 0;
+    for (int v = visited.nextSetBit(0); v >= 0; v = visited.nextSetBit(v + 1)) {
+      edges += graph.outDegree(v);
     }
+    counters.add(visited.cardinality(), edges);
+  }
 
-    public T pop() {
-      // Remove the head of the stack.
-      T data = list.getFirst();
-      list.removeFirst();
-      return data;
+  /**
+   * It writes the event of a property check, if it is being recorded.
+   *
+   * @param event the event, which began when the check did.
+   * @param property the name of the property.
+   * @param result whether the graph has the property.
+   */
+  private void commitCheck(GraphEvents.PropertyCheck event, String property, boolean result) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.property = property;
+      event.variant = cache().relation != null ? "matrix" : "rows";
+      event.verticies = compact().size();
+      event.edges = compact().edgeCount();
+      event.result = result;
+      event.commit();
     }
+  }
 
-    public boolean isEmpty() {
-      // Check if the stack is empty.
-      return list.isEmpty();
+  /**
+   * It writes the event of a search, if it is being recorded.
+   *
+   * @param event the event, which began when the search did.
+   * @param algorithm the name of the search.
+   * @param variant how the verticies were returned.
+   * @param visited the number of verticies the search visited.
+   */
+  private void commitSearch(
+      GraphEvents.Search event, String algorithm, String variant, int visited) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.algorithm = algorithm;
+      event.variant = variant;
+      event.verticies = compact().size();
+      event.edges = compact().edgeCount();
+      event.visited = visited;
+      event.commit();
     }
   }
 
-  private class CustomLinkedList<T> {
-    private Node<T> head;
+  /**
+   * It runs a recursive search on a thread of its own with a stack large enough for the graph, and
+   * waits for it to finish. Small graphs are searched on the calling thread, unless a stack size
+   * has been set. Any error thrown by the search is thrown again on the calling thread.
+   *
+   * @param search the recursive search to run.
+   * @return the list of verticies, as searched through by the search.
+   */
+  private List<T> runRecursively(Supplier<List<T>> search) {
+    if (recursionStackSize == 0 && compact().size() < RECURSION_THREAD_THRESHOLD) {
+      return search.get();
+    }
 
-    public void addFirst(T data) {
-      // Add a new node to the head of the linked list.
-      Node<T> newNode = new Node<>(data);
-      newNode.next = head;
-      head = newNode;
+    FutureTask<List<T>> task = new FutureTask<>(search::get);
+    Thread thread = new Thread(null, task, "graph-recursive-search", recursionStackSize());
+    thread.start();
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      task.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while searching the graph", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
     }
+  }
 
-    public T getFirst() {
-      // Return the head of the linked list.
-      return head.data;
+  /**
+   * It returns the stack size of the thread that the recursive searches run on. Each level of
+   * recursion uses a frame on the stack, so unless a size has been set, the stack is sized from
+   * the number of verticies.
+   *
+   * @return the stack size in bytes.
+   */
+  private long recursionStackSize() {
+    if (recursionStackSize > 0) {
+      return recursionStackSize;
     }
+    return Math.max(MIN_RECURSION_STACK_SIZE, compact().size() * STACK_BYTES_PER_VERTEX);
+  }
 
-    public void removeFirst() {
-      // Remove the head of the linked list.
-      head = head.next;
+  /**
+   * It returns the compacted verticies and edges of the graph, compacting them again if the graph
+   * has changed since they were last compacted.
+   *
+   * @return the compact graph.
+   */
+  CompactGraph<T> compact() {
+    if (compact == null) {
+      compact = index.toCompactGraph(order);
     }
+    return compact;
+  }
+
+  /**
+   * It returns the hash set index of the graph, building it the first time the graph is changed.
+   *
+   * @return the index of the verticies and edges.
+   */
+  private AdjacencyIndex<T> index() {
+    if (index == null) {
+      index = new AdjacencyIndex<>(compact());
+    }
+    return index;
+  }
 
-    public boolean isEmpty() {
-      // Check if the linked list is empty.
-      return head == null;
+  /**
+   * It records that the graph has changed, so the cached properties and the compacted graph are
+   * no longer used.
+   *
+   * @param changed whether the graph was changed.
+   * @return the boolean value of whether the graph was changed.
+   */
+  private boolean modified(boolean changed) {
+    if (changed) {
+      modCount++;
+      compact = null;
     }
+    return changed;
+  }
+
+  /**
+   * Adds a vertex with no edges to the graph.
+   *
+   * @param vertex the vertex to add.
+   * @return the boolean value of whether the vertex was added, or was already in the graph.
+   */
+  public boolean addVertex(T vertex) {
+    return modified(index().addVertex(vertex));
+  }
+
+  /**
+   * Removes a vertex from the graph, along with every edge into or out of it.
+   *
+   * @param vertex the vertex to remove.
+   * @return the boolean value of whether the vertex was removed, or was not in the graph.
+   */
+  public boolean removeVertex(T vertex) {
+    return modified(index().removeVertex(vertex));
+  }
 
-    class Node<T> {
-      private T data;
-      private Node<T> next;
+  /**
+   * Adds an edge to the graph, adding either end that is not in the graph yet. Reflexivity,
+   * symmetry, anti-symmetry and the roots are kept up to date as the edge is added.
+   *
+   * @param source the source of the edge.
+   * @param destination the destination of the edge.
+   * @return the boolean value of whether the edge was added, or was already in the graph.
+   */
+  public boolean addEdge(T source, T destination) {
+    return modified(index().addEdge(source, destination));
+  }
 
-      public Node(T data) {
-        this.data = data;
+  /**
+   * Removes an edge from the graph, keeping both of its ends. Reflexivity, symmetry, anti-symmetry
+   * and the roots are kept up to date as the edge is removed.
+   *
+   * @param source the source of the edge.
+   * @param destination the destination of the edge.
+   * @return the boolean value of whether the edge was removed, or was not in the graph.
+   */
+  public boolean removeEdge(T source, T destination) {
+    return modified(index().removeEdge(source, destination));
+  }
+
+  /**
+   * It fills the cache with properties that were computed before, such as those stored in a
+   * snapshot, so they are not checked again.
+   *
+   * @param reflexive whether the graph is reflexive.
+   * @param symmetric whether the graph is symmetric.
+   * @param antiSymmetric whether the graph is anti-symmetric.
+   * @param transitive whether the graph is transitive.
+   * @param roots the roots of the graph.
+   * @param partition the partition of the verticies, or null if it was not stored.
+   */
+  void restore(
+      boolean reflexive,
+      boolean symmetric,
+      boolean antiSymmetric,
+      boolean transitive,
+      Set<T> roots,
+      EquivalencePartition<T> partition) {
+    PropertyCache cache = cache();
+    cache.reflexive = reflexive;
+    cache.symmetric = symmetric;
+    cache.antiSymmetric = antiSymmetric;
+    cache.transitive = transitive;
+    cache.roots = Collections.unmodifiableSet(roots);
+    cache.partition = partition;
+  }
+
+  /**
+   * It returns a read-only view of the verticies of the graph, in vertex order.
+   *
+   * @return the set of verticies.
+   */
+  public Set<T> vertexSet() {
+    return new AbstractSet<T>() {
+      @Override
+      public Iterator<T> iterator() {
+        return new Iterator<T>() {
+          private final CompactGraph<T> graph = compact();
+          private int id = 0;
+
+          @Override
+          public boolean hasNext() {
+            return id < graph.size();
+          }
+
+          @Override
+          public T next() {
+            if (id >= graph.size()) {
+              throw new NoSuchElementException();
+            }
+            return graph.vertex(id++);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return compact().size();
       }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public boolean contains(Object o) {
+        return compact().id((T) o) >= 0;
+      }
+    };
+  }
+
+  /**
+   * It returns a read-only view of the edges of the graph, ordered by source and then destination.
+   * Each edge is created as it is iterated over.
+   *
+   * @return the set of edges.
+   */
+  public Set<Edge<T>> edgeSet() {
+    return new AbstractSet<Edge<T>>() {
+      @Override
+      public Iterator<Edge<T>> iterator() {
+        return new Iterator<Edge<T>>() {
+          private final CompactGraph<T> graph = compact();
+          private int source = 0;
+          private int index = 0;
+
+          @Override
+          public boolean hasNext() {
+            return index < graph.edgeCount();
+          }
+
+          @Override
+          public Edge<T> next() {
+            if (index >= graph.edgeCount()) {
+              throw new NoSuchElementException();
+            }
+            while (graph.outEnd(source) <= index) {
+              source++;
+            }
+            return new Edge<>(graph.vertex(source), graph.vertex(graph.outTarget(index++)));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return compact().edgeCount();
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public boolean contains(Object o) {
+        if (!(o instanceof Edge)) {
+          return false;
+        }
+        Edge<T> edge = (Edge<T>) o;
+        return containElement(edge.getSource(), edge.getDestination());
+      }
+    };
+  }
+
+  /**
+   * It returns the cache of computed properties, replacing it if the graph has changed since it was
+   * created.
+   *
+   * @return the cache for the current state of the graph.
+   */
+  private PropertyCache cache() {
+    if (cache == null || cache.modCount != modCount) {
+      cache = new PropertyCache(modCount);
     }
+    return cache;
   }
 
-  private Set<Edge<T>> edges;
-  private Set<T> verticies;
+  /**
+   * It returns the bitset relation of the graph, if the graph is dense enough for one to be used.
+   *
+   * @return the relation matrix, or null if the property checks should use the compact graph.
+   */
+  private RelationMatrix relation() {
+    PropertyCache cache = cache();
+    if (cache.relation == null && RelationMatrix.suits(compact().size(), compact().edgeCount())) {
+      cache.relation = new RelationMatrix(compact());
+      count(compact().size(), compact().edgeCount());
+    }
+    return cache.relation;
+  }
 
   /**
-   * Creates a new graph.
+   * It returns the partition of the verticies into the sets connected by edges.
    *
-   * @param verticies The set of verticies in the graph.
-   * @param edges The set of edges in the graph.
+   * @return the partition of the graph.
    */
-  public Graph(Set<T> verticies, Set<Edge<T>> edges) {
-    this.verticies = verticies;
-    this.edges = edges;
+  EquivalencePartition<T> partition() {
+    PropertyCache cache = cache();
+    if (cache.partition == null) {
+      cache.partition = new EquivalencePartition<>(compact());
+      count(compact().size(), compact().edgeCount());
+    }
+    return cache.partition;
   }
 
   /**
@@ -161,39 +528,157 @@ public class Graph<T extends Comparable<T>> {
    * @return the set of roots.
    */
   public Set<T> getRoots() {
-    // Check if the source and destination of edges are equal to each other.
-    // If they are, then the vertex is a root.
-    Set<T> roots = new HashSet<T>();
-    for (T vertex : verticies) {
-      for (Edge<T> edge : edges) {
-        if ((edge.getDestination() != vertex) && (edge.getSource() == vertex)) {
-          if (checkDesitination(vertex)) {
-            roots.add(vertex);
-          }
-        } else if ((edge.getDestination() == vertex) && (edge.getSource() == vertex)) {
-          if (checkDesitination(vertex)) {
-            roots.add(vertex);
-          }
-        } else if (isEquivalence()) {
-          T minValue = null;
-
-          // Iterate over the elements of the HashSet
-          Iterator<T> iterator = getEquivalenceClass(vertex).iterator();
-          while (iterator.hasNext()) {
-            T value = iterator.next();
-            if (minValue == null || value.compareTo(minValue) < 0) {
-              minValue = value;
-            }
-          }
-          roots.add(minValue);
+    PropertyCache cache = cache();
+    if (cache.roots == null) {
+      // Only an equivalence relation has roots other than the verticies with no incoming edges, and
+      // it has to be both reflexive and symmetric.
+      boolean indexed = index != null && !(index.isReflexive() && index.isSymmetric());
+      cache.roots = Collections.unmodifiableSet(indexed ? indexedRoots() : findRoots());
+    }
+    return cache.roots;
+  }
+
+  /**
+   * It collects the roots kept by the index of a changed graph, in vertex order.
+   *
+   * @return the set of roots.
+   */
+  @SuppressWarnings("unchecked")
+  private Set<T> indexedRoots() {
+    Object[] sources = index.sources();
+    order.sort(sources);
+    Set<T> roots = new LinkedHashSet<T>();
+    for (Object source : sources) {
+      roots.add((T) source);
+    }
+    return roots;
+  }
+
+  /**
+   * It finds the set of roots of the graph without using the cache.
+   *
+   * @return the set of roots.
+   */
+  private Set<T> findRoots() {
+    // A vertex is a root if it has an edge to another vertex and no incoming edges. A self-loop
+    // is an incoming edge, so an in-degree of zero with any outgoing edge is enough.
+    boolean[] isRoot = new boolean[compact().size()];
+    for (int v = 0; v < compact().size(); v++) {
+      isRoot[v] = compact().inDegree(v) == 0 && compact().outDegree(v) > 0;
+    }
+    count(compact().size(), 0);
+    return collectRoots(isRoot);
+  }
+
+  /**
+   * It adds the roots of any equivalence classes to the verticies already marked as roots, and
+   * collects them in order.
+   *
+   * @param isRoot the verticies that are roots because they have no incoming edges.
+   * @return the set of roots.
+   */
+  private Set<T> collectRoots(boolean[] isRoot) {
+    // For an equivalence relation, the minimum of each equivalence class is a root, as long as
+    // some edge leaves another vertex.
+    if (isEquivalence()) {
+      EquivalencePartition<T> partition = partition();
+      for (int v = 0; v < compact().size(); v++) {
+        if (compact().edgeCount() > compact().outDegree(v)) {
+          isRoot[partition.minimum(v)] = true;
         }
       }
     }
-    Set<T> orderSet = new TreeSet<T>(new NumericalComparator());
-    for (T root : roots) {
-      orderSet.add(root);
+
+    // Ids are in vertex order, so collecting them in id order keeps the roots sorted.
+    Set<T> roots = new LinkedHashSet<T>();
+    for (int v = 0; v < compact().size(); v++) {
+      if (isRoot[v]) {
+        roots.add(compact().vertex(v));
+      }
     }
-    return orderSet;
+    return roots;
+  }
+
+  /**
+   * It analyzes every property of the graph at once. The degrees, roots, reflexivity, symmetry,
+   * anti-symmetry and transitivity are all gathered in one pass over the rows of each vertex, and
+   * any property that is already cached is reused rather than checked again.
+   *
+   * @return the report of the properties of the graph.
+   */
+  public GraphAnalysis<T> analyze() {
+    PropertyCache cache = cache();
+    boolean checkTransitive = cache.transitive == null;
+
+    boolean reflexive = true;
+    boolean symmetric = true;
+    boolean antiSymmetric = true;
+    boolean transitive = true;
+    int selfLoops = 0;
+    int[] inDegrees = {compact().size() == 0 ? 0 : Integer.MAX_VALUE, 0};
+    int[] outDegrees = {compact().size() == 0 ? 0 : Integer.MAX_VALUE, 0};
+    boolean[] isRoot = new boolean[compact().size()];
+
+    for (int v = 0; v < compact().size(); v++) {
+      int in = compact().inDegree(v);
+      int out = compact().outDegree(v);
+      inDegrees[0] = Math.min(inDegrees[0], in);
+      inDegrees[1] = Math.max(inDegrees[1], in);
+      outDegrees[0] = Math.min(outDegrees[0], out);
+      outDegrees[1] = Math.max(outDegrees[1], out);
+      isRoot[v] = in == 0 && out > 0;
+
+      // Merge the sorted out-neighbour and in-neighbour rows of the vertex, so each out-neighbour
+      // is checked for a reverse edge without searching.
+      boolean selfLoop = false;
+      int j = compact().inStart(v);
+      for (int i = compact().outStart(v); i < compact().outEnd(v); i++) {
+        int target = compact().outTarget(i);
+        while (j < compact().inEnd(v) && compact().inSource(j) < target) {
+          j++;
+        }
+        boolean reversed = j < compact().inEnd(v) && compact().inSource(j) == target;
+        if (target == v) {
+          selfLoop = true;
+        } else if (!reversed) {
+          symmetric = false;
+        } else {
+          antiSymmetric = false;
+        }
+        if (checkTransitive && transitive && target != v) {
+          transitive = compact().outRowContained(target, v);
+        }
+      }
+      if (selfLoop) {
+        selfLoops++;
+      } else {
+        reflexive = false;
+      }
+    }
+
+    count(compact().size(), compact().edgeCount());
+
+    cache.reflexive = reflexive;
+    cache.symmetric = symmetric;
+    cache.antiSymmetric = antiSymmetric;
+    if (checkTransitive) {
+      cache.transitive = transitive;
+    }
+    if (cache.roots == null) {
+      cache.roots = Collections.unmodifiableSet(collectRoots(isRoot));
+    }
+
+    return new GraphAnalysis<>(
+        compact().size(),
+        compact().edgeCount(),
+        selfLoops,
+        reflexive,
+        symmetric,
+        antiSymmetric,
+        cache.transitive,
+        cache.roots,
+        inDegrees,
+        outDegrees);
   }
 
   /**
@@ -203,12 +688,8 @@ public class Graph<T extends Comparable<T>> {
    * @return the boolean value of whether the vertex is a destination or not.
    */
   public boolean checkDesitination(T vertex) {
-    for (Edge<T> edge : edges) {
-      if (edge.getDestination() == vertex) {
-        return false;
-      }
-    }
-    return true;
+    int id = compact().id(vertex);
+    return id < 0 || compact().inDegree(id) == 0;
   }
 
   /**
@@ -217,19 +698,39 @@ public class Graph<T extends Comparable<T>> {
    * @return the boolean value of whether the graph is a reflexive or not.
    */
   public boolean isReflexive() {
+    if (index != null) {
+      return index.isReflexive();
+    }
+    PropertyCache cache = cache();
+    if (cache.reflexive == null) {
+      GraphEvents.PropertyCheck event = new GraphEvents.PropertyCheck();
+      event.begin();
+      cache.reflexive = checkReflexive();
+      commitCheck(event, "reflexive", cache.reflexive);
+    }
+    return cache.reflexive;
+  }
+
+  /**
+   * It checks if the graph is reflexive without using the cache.
+   *
+   * @return the boolean value of whether the graph is a reflexive or not.
+   */
+  private boolean checkReflexive() {
     // Check if the graph is reflexive or not.
-    int count = 0;
-    for (T vertex : verticies) {
-      for (Edge<T> edge : edges) {
-        if ((edge.getSource() == vertex) && (edge.getDestination() == vertex)) {
-          count++;
-        }
-      }
+    RelationMatrix matrix = relation();
+    if (matrix != null) {
+      count(compact().size(), 0);
+      return matrix.isReflexive();
     }
-    if (count == verticies.size()) {
-      return true;
+    for (int v = 0; v < compact().size(); v++) {
+      if (!compact().hasEdge(v, v)) {
+        count(v + 1, v + 1);
+        return false;
+      }
     }
-    return false;
+    count(compact().size(), compact().size());
+    return true;
   }
 
   /**
@@ -238,27 +739,48 @@ public class Graph<T extends Comparable<T>> {
    * @return the boolean value of whether the graph is a symmetric or not.
    */
   public boolean isSymmetric() {
-    // Check is the graph is symmetric or not.
-    int count = 0;
-    int numberOfEdges = 0;
-    for (T vertex : verticies) {
-      for (Edge<T> edge : edges) {
-
-        if (edge.getSource() == vertex) {
-          numberOfEdges++;
-          for (Edge<T> edge2 : edges) {
-            if ((edge2.getDestination() == vertex)
-                && (edge2.getSource() == edge.getDestination())) {
-              count++;
-            }
-          }
+    if (index != null) {
+      return index.isSymmetric();
+    }
+    PropertyCache cache = cache();
+    if (cache.symmetric == null) {
+      GraphEvents.PropertyCheck event = new GraphEvents.PropertyCheck();
+      event.begin();
+      cache.symmetric = checkSymmetric();
+      commitCheck(event, "symmetric", cache.symmetric);
+    }
+    return cache.symmetric;
+  }
+
+  /**
+   * It checks if the graph is symmetric without using the cache.
+   *
+   * @return the boolean value of whether the graph is a symmetric or not.
+   */
+  private boolean checkSymmetric() {
+    CompactGraph<T> compact = compact();
+    RelationMatrix matrix = relation();
+    if (matrix != null) {
+      count(compact.size(), 0);
+      return matrix.isSymmetric();
+    }
+    // The graph is symmetric when every vertex has the same out-neighbours as in-neighbours.
+    long scanned = 0;
+    for (int v = 0; v < compact.size(); v++) {
+      if (compact.outDegree(v) != compact.inDegree(v)) {
+        count(v + 1, scanned);
+        return false;
+      }
+      for (int i = compact.outStart(v), j = compact.inStart(v); i < compact.outEnd(v); i++, j++) {
+        scanned++;
+        if (compact.outTarget(i) != compact.inSource(j)) {
+          count(v + 1, scanned);
+          return false;
         }
       }
     }
-    if (count == numberOfEdges) {
-      return true;
-    }
-    return false;
+    count(compact.size(), scanned);
+    return true;
   }
 
   /**
@@ -267,21 +789,33 @@ public class Graph<T extends Comparable<T>> {
    * @return the boolean value of whether the graph is a transitive or not.
    */
   public boolean isTransitive() {
-    // Check if the graph is transitive or not.
-    for (Edge<T> edge : edges) {
-      T source = edge.getSource();
-      T destination = edge.getDestination();
-      for (Edge<T> edge2 : edges) {
-        if (edge2.getSource() == destination) {
-          if (!containElement(source, edge2.getDestination())) {
-            return false;
-          }
-        }
-      }
+    PropertyCache cache = cache();
+    if (cache.transitive == null) {
+      GraphEvents.PropertyCheck event = new GraphEvents.PropertyCheck();
+      event.begin();
+      cache.transitive = checkTransitive();
+      commitCheck(event, "transitive", cache.transitive);
     }
-    return true;
+    return cache.transitive;
+  }
+
+  /**
+   * It checks if the graph is transitive without using the cache.
+   *
+   * @return the boolean value of whether the graph is a transitive or not.
+   */
+  private boolean checkTransitive() {
+    RelationMatrix matrix = relation();
+    if (matrix != null) {
+      count(compact().size(), 0);
+      return matrix.isTransitive();
+    }
+    // For every edge (a, b), everything b reaches must also be reached by a. The verticies are
+    // checked in parallel, stopping as soon as any edge breaks this.
+    return TransitivityCheck.isTransitive(compact(), counters);
   }
 
+
   /**
    * It checks if the set of edges is contains the element or not.
    *
@@ -290,12 +824,9 @@ public class Graph<T extends Comparable<T>> {
    * @return the boolean value of whether the set of edges contain the input elements or not.
    */
   public boolean containElement(T source, T destination) {
-    for (Edge<T> edge : edges) {
-      if ((edge.getSource() == source) && (edge.getDestination() == destination)) {
-        return true;
-      }
-    }
-    return false;
+    int sourceId = compact().id(source);
+    int destinationId = compact().id(destination);
+    return sourceId >= 0 && destinationId >= 0 && compact().hasEdge(sourceId, destinationId);
   }
 
   /**
@@ -304,25 +835,49 @@ public class Graph<T extends Comparable<T>> {
    * @return the boolean value of whether the graph is an anti-symmetric or not.
    */
   public boolean isAntiSymmetric() {
-    // Check if the graph is anti-symmetric or not.
-    int count = 0;
-    int checkCount = 0;
-    for (Edge<T> edge : edges) {
-      T source = edge.getSource();
-      T destination = edge.getDestination();
-      for (Edge<T> edge2 : edges) {
-        if ((edge2.getSource() == destination) && (edge2.getDestination() == source)) {
-          count++;
-          if (source == destination) {
-            checkCount++;
-          }
+    if (index != null) {
+      return index.isAntiSymmetric();
+    }
+    PropertyCache cache = cache();
+    if (cache.antiSymmetric == null) {
+      GraphEvents.PropertyCheck event = new GraphEvents.PropertyCheck();
+      event.begin();
+      cache.antiSymmetric = checkAntiSymmetric();
+      commitCheck(event, "antiSymmetric", cache.antiSymmetric);
+    }
+    return cache.antiSymmetric;
+  }
+
+  /**
+   * It checks if the graph is anti-symmetric without using the cache.
+   *
+   * @return the boolean value of whether the graph is an anti-symmetric or not.
+   */
+  private boolean checkAntiSymmetric() {
+    RelationMatrix matrix = relation();
+    if (matrix != null) {
+      count(compact().size(), 0);
+      return matrix.isAntiSymmetric();
+    }
+    // The graph is anti-symmetric when no vertex other than itself is both an out-neighbour and an
+    // in-neighbour of a vertex, which is found by merging the two sorted rows.
+    long scanned = 0;
+    for (int v = 0; v < compact().size(); v++) {
+      int j = compact().inStart(v);
+      for (int i = compact().outStart(v); i < compact().outEnd(v); i++) {
+        int target = compact().outTarget(i);
+        scanned++;
+        while (j < compact().inEnd(v) && compact().inSource(j) < target) {
+          j++;
+        }
+        if (target != v && j < compact().inEnd(v) && compact().inSource(j) == target) {
+          count(v + 1, scanned);
+          return false;
         }
       }
     }
-    if (count == checkCount) {
-      return true;
-    }
-    return false;
+    count(compact().size(), scanned);
+    return true;
   }
 
   /**
@@ -339,26 +894,28 @@ public class Graph<T extends Comparable<T>> {
   }
 
   /**
-   * returns the set of verticies that are equivalence class to the input vertex.
+   * returns the set of verticies that are equivalence class to the input vertex. The set is
+   * read-only and shared by every vertex in the class.
    *
    * @param vertex the vertex to find the equivalence class of.
    * @return the set of verticies that are equivalence class to the input vertex.
    */
   public Set<T> getEquivalenceClass(T vertex) {
-    // Get the equivalence class of a vertex.
-    Set<T> equivalenceClass = new HashSet<T>();
-    if (isEquivalence()) {
-      for (Edge<T> edge : edges) {
-        T edgeSource = edge.getSource();
-        if (edgeSource.equals(vertex)) {
-          for (Edge<T> edge2 : edges) {
-            if ((edge.getDestination().equals(edge2.getSource()))
-                && (edge2.getDestination().equals(edge.getSource()))) {
-              equivalenceClass.add(edge.getDestination());
-            }
-          }
-        }
-      }
+    GraphEvents.EquivalenceLookup event = new GraphEvents.EquivalenceLookup();
+    event.begin();
+
+    // In an equivalence relation, the class of a vertex is the set it is connected to.
+    int id = compact().id(vertex);
+    Set<T> equivalenceClass =
+        id < 0 || !isEquivalence() ? new HashSet<T>() : partition().equivalenceClass(id);
+
+    event.end();
+    if (event.shouldCommit()) {
+      event.vertex = String.valueOf(vertex);
+      event.verticies = compact().size();
+      event.edges = compact().edgeCount();
+      event.classSize = equivalenceClass.size();
+      event.commit();
     }
     return equivalenceClass;
   }
@@ -369,55 +926,159 @@ public class Graph<T extends Comparable<T>> {
    * @return the list of verticies, as searched through by the BreadthFirstSearch algorithm.
    */
   public List<T> iterativeBreadthFirstSearch() {
+    PropertyCache cache = cache();
+    if (cache.iterativeBreadthFirstSearch == null) {
+      GraphEvents.Search event = new GraphEvents.Search();
+      event.begin();
+      cache.iterativeBreadthFirstSearch =
+          Collections.unmodifiableList(computeIterativeBreadthFirstSearch());
+      commitSearch(
+          event,
+          Traversal.ITERATIVE_BREADTH_FIRST.name(),
+          "list",
+          cache.iterativeBreadthFirstSearch.size());
+    }
+    return cache.iterativeBreadthFirstSearch;
+  }
+
+  /**
+   * It performs an iterative BreadthFirstSearch without using the cache.
+   *
+   * @return the list of verticies, as searched through by the BreadthFirstSearch algorithm.
+   */
+  private List<T> computeIterativeBreadthFirstSearch() {
     // iterate through the graph using breadth first search
     // return the list of verticies, as searched through by the BreadthFirstSearch algorithm
-    Set<T> roots = this.getRoots();
-    List<T> visited = new ArrayList<>();
-    Set<T> visitedSet = new HashSet<>();
-    CustomQueue<T> queue = new CustomQueue<>();
-    if (verticies.isEmpty()) {
-      return visited;
-    }
-    for (T root : roots) {
-      if (!visitedSet.contains(root)) {
-        visited.add(root);
-        visitedSet.add(root);
-        queue.enqueue(root);
+    List<T> visited = new ArrayList<>(compact().size());
+    BitSet visitedSet = new BitSet(compact().size());
+    IntQueue queue = new IntQueue();
+
+    for (T root : getRoots()) {
+      int rootId = compact().id(root);
+      if (visitedSet.get(rootId)) {
+        continue;
       }
+      visited.add(root);
+      visitedSet.set(rootId);
+      queue.enqueue(rootId);
+
+      // Each vertex is queued once, so its row is scanned exactly once.
       while (!queue.isEmpty()) {
-        T currentVertex = queue.dequeue();
-        for (Edge<T> edge : edges) {
-          if (edge.getSource().equals(currentVertex)
-              && !visitedSet.contains(edge.getDestination())) {
-            Set<T> vert = getVerticies(currentVertex);
-            for (T v : vert) {
-              if (!visitedSet.contains(v)) {
-                visited.add(v);
-                visitedSet.add(v);
-                queue.enqueue(v);
-              }
-            }
+        int current = queue.dequeue();
+        for (int i = compact().outStart(current); i < compact().outEnd(current); i++) {
+          int next = compact().outTarget(i);
+          if (!visitedSet.get(next)) {
+            visited.add(compact().vertex(next));
+            visitedSet.set(next);
+            queue.enqueue(next);
           }
         }
       }
     }
+    countSearch(visitedSet);
     return visited;
   }
 
   /**
-   * returns the set of verticies that are adjacent to the given vertex, in reverse numerical order.
+   * It searches the graph lazily, finding each vertex only when it is asked for, so a caller can
+   * stop early or write out a huge search without holding the whole order in memory. The
+   * verticies are visited in the same order as the list returned by the matching search method.
+   * The recursive searches really recurse, on a thread of their own sized like the one the list
+   * methods use, and only run a few chunks of verticies ahead of the caller.
+   *
+   * @param traversal the order to visit the verticies in.
+   * @return the iterator over the verticies, in search order.
+   */
+  public Iterator<T> traverse(Traversal traversal) {
+    // The event is written when the search runs out of verticies, so it covers the whole search.
+    GraphEvents.Search event = new GraphEvents.Search();
+    event.algorithm = traversal.name();
+    event.variant = "lazy";
+    event.verticies = compact().size();
+    event.edges = compact().edgeCount();
+    event.begin();
+
+    // The recursive searches run on a thread of their own, so they are given the graph and roots
+    // rather than reading them from the graph, which may have changed by the time they do.
+    CompactGraph<T> graph = compact();
+    int[] roots = rootIds();
+    switch (traversal) {
+      case RECURSIVE_DEPTH_FIRST:
+        return new RecursiveSearchIterator<>(
+            graph, visit -> recursiveDepthFirst(graph, roots, visit), recursionStackSize(), event);
+      case RECURSIVE_BREADTH_FIRST:
+        return new RecursiveSearchIterator<>(
+            graph,
+            visit -> recursiveBreadthFirst(graph, roots, visit),
+            recursionStackSize(),
+            event);
+      case ITERATIVE_DEPTH_FIRST:
+        return TraversalIterator.depthFirst(graph, roots, counters, event);
+      case ITERATIVE_BREADTH_FIRST:
+      default:
+        return TraversalIterator.breadthFirst(graph, roots, counters, event);
+    }
+  }
+
+  /**
+   * It returns the ids of the roots of the graph, in the order they are searched from.
+   *
+   * @return the ids of the roots.
+   */
+  private int[] rootIds() {
+    return getRoots().stream().mapToInt(compact()::id).toArray();
+  }
+
+  /**
+   * It searches the graph lazily, as a sequential stream of the verticies in search order.
+   *
+   * @param traversal the order to visit the verticies in.
+   * @return the stream of verticies, in search order.
+   */
+  public Stream<T> stream(Traversal traversal) {
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(
+            traverse(traversal), Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL),
+        false);
+  }
+
+  /**
+   * It performs a level-synchronous BreadthFirstSearch from every root at once, expanding each
+   * level in parallel. Level 0 holds the roots, and each vertex is in the level of its shortest
+   * path from any root. Verticies that no root reaches are not visited.
+   *
+   * <p>Which verticies are in each level never changes, but their order within a level depends on
+   * which thread reached them first, unless a canonical order is asked for.
+   *
+   * @param canonical whether to sort each level in vertex order, so every run is the same.
+   * @return the level of every vertex and the verticies of every level.
+   */
+  public BreadthFirstLevels<T> parallelBreadthFirstSearch(boolean canonical) {
+    GraphEvents.Search event = new GraphEvents.Search();
+    event.begin();
+    int[] roots = getRoots().stream().mapToInt(compact()::id).toArray();
+    BreadthFirstLevels<T> levels = ParallelBreadthFirstSearch.search(compact(), roots, canonical);
+    commitSearch(event, "PARALLEL_BREADTH_FIRST", "parallel", levels.getVisitOrder().size());
+    if (counters != null) {
+      long edges = 0;
+      for (T vertex : levels.getVisitOrder()) {
+        edges += compact().outDegree(compact().id(vertex));
+      }
+      counters.add(levels.getVisitOrder().size(), edges);
+    }
+    return levels;
+  }
+
+  /**
+   * returns the set of verticies that are adjacent to the given vertex, in vertex order. The set
+   * is a read-only view of the neighbours, which were sorted once when the graph was built.
    *
    * @param vertex the vertex to find the adjacent verticies of.
    * @return the set of verticies that are adjacent to the given vertex.
    */
   public Set<T> getVerticies(T vertex) {
-    Set<T> verticies = new TreeSet<>(new NumericalComparator());
-    for (Edge<T> edge : edges) {
-      if (edge.getSource().equals(vertex)) {
-        verticies.add(edge.getDestination());
-      }
-    }
-    return verticies;
+    int id = compact().id(vertex);
+    return id < 0 ? Collections.emptySet() : compact().outNeighbours(id);
   }
 
   /**
@@ -426,72 +1087,55 @@ public class Graph<T extends Comparable<T>> {
    * @return the list of verticies, as searched through by the DepthFirstSearch algorithm.
    */
   public List<T> iterativeDepthFirstSearch() {
+    PropertyCache cache = cache();
+    if (cache.iterativeDepthFirstSearch == null) {
+      GraphEvents.Search event = new GraphEvents.Search();
+      event.begin();
+      cache.iterativeDepthFirstSearch =
+          Collections.unmodifiableList(computeIterativeDepthFirstSearch());
+      commitSearch(
+          event,
+          Traversal.ITERATIVE_DEPTH_FIRST.name(),
+          "list",
+          cache.iterativeDepthFirstSearch.size());
+    }
+    return cache.iterativeDepthFirstSearch;
+  }
+
+  /**
+   * It performs an iterative DepthFirstSearch without using the cache.
+   *
+   * @return the list of verticies, as searched through by the DepthFirstSearch algorithm.
+   */
+  private List<T> computeIterativeDepthFirstSearch() {
     // iterate through the graph using depth first search
     // return the list of verticies, as searched through by the DepthFirstSearch algorithm
-    Set<T> roots = this.getRoots();
     List<T> visited = new ArrayList<>();
-    Set<T> visitedSet = new HashSet<>();
-    CustomStack<T> stack = new CustomStack<>();
+    BitSet visitedSet = new BitSet(compact().size());
+    IntStack stack = new IntStack();
 
-    if (verticies.isEmpty()) {
-      return visited;
-    }
-
-    for (T root : roots) {
-      if (!visitedSet.contains(root)) {
-        visited.add(root);
-        visitedSet.add(root);
-        stack.push(root);
-      }
+    for (T root : getRoots()) {
+      stack.push(compact().id(root));
 
       while (!stack.isEmpty()) {
-        T current = stack.pop();
-        for (Edge<T> edge : edges) {
-          if (edge.getSource().equals(current) && !visitedSet.contains(edge.getDestination())) {
-            Set<T> vert = getVerticies(current);
-            for (T v : vert) {
-              if (!visitedSet.contains(v)) {
-                visited.add(v);
-                visitedSet.add(v);
-                stack.push(v);
-              }
-              Set<T> vert2 = getVerticies(v);
-              for (T v2 : vert2) {
-                if (!visitedSet.contains(v2)) {
-                  visited.add(v2);
-                  visitedSet.add(v2);
-                  stack.push(v2);
-                }
-                Set<T> vert3 = getVerticies(v2);
-                for (T v3 : vert3) {
-                  if (!visitedSet.contains(v3)) {
-                    visited.add(v3);
-                    visitedSet.add(v3);
-                    stack.push(v3);
-                  }
-                  Set<T> vert4 = getVerticies(v3);
-                  for (T v4 : vert4) {
-                    if (!visitedSet.contains(v4)) {
-                      visited.add(v4);
-                      visitedSet.add(v4);
-                      stack.push(v4);
-                    }
-                    Set<T> vert5 = getVerticies(v4);
-                    for (T v5 : vert5) {
-                      if (!visitedSet.contains(v5)) {
-                        visited.add(v5);
-                        visitedSet.add(v5);
-                        stack.push(v5);
-                      }
-                    }
-                  }
-                }
-              }
-            }
+        int current = stack.pop();
+        if (visitedSet.get(current)) {
+          continue;
+        }
+        visited.add(compact().vertex(current));
+        visitedSet.set(current);
+
+        // Push the neighbours from the last to the first, so the first neighbour is searched
+        // first, in the same order as the recursive search.
+        for (int i = compact().outEnd(current) - 1; i >= compact().outStart(current); i--) {
+          int next = compact().outTarget(i);
+          if (!visitedSet.get(next)) {
+            stack.push(next);
           }
         }
       }
     }
+    countSearch(visitedSet);
     return visited;
   }
 
@@ -501,56 +1145,86 @@ public class Graph<T extends Comparable<T>> {
    * @return the list of verticies, as searched through by the BreadthFirstSearch algorithm.
    */
   public List<T> recursiveBreadthFirstSearch() {
+    PropertyCache cache = cache();
+    if (cache.recursiveBreadthFirstSearch == null) {
+      GraphEvents.Search event = new GraphEvents.Search();
+      event.begin();
+      cache.recursiveBreadthFirstSearch =
+          Collections.unmodifiableList(runRecursively(this::computeRecursiveBreadthFirstSearch));
+      commitSearch(
+          event,
+          Traversal.RECURSIVE_BREADTH_FIRST.name(),
+          "list",
+          cache.recursiveBreadthFirstSearch.size());
+    }
+    return cache.recursiveBreadthFirstSearch;
+  }
+
+  /**
+   * It performs a recursive BreadthFirstSearch without using the cache.
+   *
+   * @return the list of verticies, as searched through by the BreadthFirstSearch algorithm.
+   */
+  private List<T> computeRecursiveBreadthFirstSearch() {
     // iterate through the graph using breadth first search
-    Set<T> roots = this.getRoots();
-    List<T> visited = new ArrayList<>();
-    Set<T> visitedSet = new HashSet<>();
-    CustomQueue<T> queue = new CustomQueue<>();
+    CompactGraph<T> graph = compact();
+    List<T> visited = new ArrayList<>(graph.size());
+    recursiveBreadthFirst(graph, rootIds(), id -> visited.add(graph.vertex(id)));
+    return visited;
+  }
 
-    if (verticies.isEmpty()) {
-      return visited;
-    }
+  /**
+   * It performs a recursive BreadthFirstSearch from each root in turn, and counts the search.
+   *
+   * @param graph the compact graph to search.
+   * @param roots the ids of the roots, in the order they are searched from.
+   * @param visit called with the id of each vertex, in the order they are visited.
+   */
+  private void recursiveBreadthFirst(CompactGraph<T> graph, int[] roots, IntConsumer visit) {
+    BitSet visitedSet = new BitSet(graph.size());
+    IntQueue queue = new IntQueue();
 
-    for (T root : roots) {
-      recursiveBfs(root, visited, visitedSet, queue);
+    for (int root : roots) {
+      recursiveBfs(graph, root, visit, visitedSet, queue);
     }
 
-    return visited;
+    countSearch(graph, visitedSet);
   }
 
   /**
-   * performs a recursive BreadthFirstSearch to update the linkedList.
+   * performs a recursive BreadthFirstSearch to visit the verticies reachable from a vertex.
    *
-   * @param vertex roots of the vertex.
-   * @param queue queue of verticies to visit.
-   * @param visitedSet visited set of verticies of the graph.
-   * @param vistied linkedList of the vertex.
+   * @param graph the compact graph to search.
+   * @param vertex the id of the vertex to search from.
+   * @param visit called with the id of each vertex, in the order they are visited.
+   * @param visitedSet the ids of the verticies that have been visited.
+   * @param queue the ids of the verticies to visit.
    */
-  private void recursiveBfs(T vertex, List<T> visited, Set<T> visitedSet, CustomQueue<T> queue) {
+  private void recursiveBfs(
+      CompactGraph<T> graph, int vertex, IntConsumer visit, BitSet visitedSet, IntQueue queue) {
     // This is a recursive method that implements breadth first search
-    if (visitedSet.contains(vertex)) {
+    if (visitedSet.get(vertex)) {
       return;
     }
 
-    visited.add(vertex);
-    visitedSet.add(vertex);
+    visit.accept(vertex);
+    visitedSet.set(vertex);
     queue.enqueue(vertex);
 
     while (!queue.isEmpty()) {
-      T currentVertex = queue.dequeue();
-      Set<T> vert = getVerticies(currentVertex);
-      for (T v : vert) {
-        if (!visitedSet.contains(v)) {
-          visited.add(v);
-          visitedSet.add(v);
-          queue.enqueue(v);
+      int current = queue.dequeue();
+      for (int i = graph.outStart(current); i < graph.outEnd(current); i++) {
+        int next = graph.outTarget(i);
+        if (!visitedSet.get(next)) {
+          visit.accept(next);
+          visitedSet.set(next);
+          queue.enqueue(next);
         }
       }
     }
 
     if (!queue.isEmpty()) {
-      T nextVertex = queue.peek();
-      recursiveBfs(nextVertex, visited, visitedSet, queue);
+      recursiveBfs(graph, queue.peek(), visit, visitedSet, queue);
     }
   }
 
@@ -560,37 +1234,72 @@ public class Graph<T extends Comparable<T>> {
    * @return the list of verticies, as searched through by the DepthFirstSearch algorithm.
    */
   public List<T> recursiveDepthFirstSearch() {
+    PropertyCache cache = cache();
+    if (cache.recursiveDepthFirstSearch == null) {
+      GraphEvents.Search event = new GraphEvents.Search();
+      event.begin();
+      cache.recursiveDepthFirstSearch =
+          Collections.unmodifiableList(runRecursively(this::computeRecursiveDepthFirstSearch));
+      commitSearch(
+          event,
+          Traversal.RECURSIVE_DEPTH_FIRST.name(),
+          "list",
+          cache.recursiveDepthFirstSearch.size());
+    }
+    return cache.recursiveDepthFirstSearch;
+  }
+
+  /**
+   * It performs a recursive DepthFirstSearch without using the cache.
+   *
+   * @return the list of verticies, as searched through by the DepthFirstSearch algorithm.
+   */
+  private List<T> computeRecursiveDepthFirstSearch() {
     // iterate through the graph using depth first search
-    Set<T> roots = this.getRoots();
-    List<T> visited = new ArrayList<>();
-    Set<T> visitedSet = new HashSet<>();
+    CompactGraph<T> graph = compact();
+    List<T> visited = new ArrayList<>(graph.size());
+    recursiveDepthFirst(graph, rootIds(), id -> visited.add(graph.vertex(id)));
+    return visited;
+  }
 
-    for (T root : roots) {
-      recursiveDfs(root, visited, visitedSet);
+  /**
+   * It performs a recursive DepthFirstSearch from each root in turn, and counts the search.
+   *
+   * @param graph the compact graph to search.
+   * @param roots the ids of the roots, in the order they are searched from.
+   * @param visit called with the id of each vertex, in the order they are visited.
+   */
+  private void recursiveDepthFirst(CompactGraph<T> graph, int[] roots, IntConsumer visit) {
+    BitSet visitedSet = new BitSet(graph.size());
+
+    for (int root : roots) {
+      recursiveDfs(graph, root, visit, visitedSet);
     }
 
-    return visited;
+    countSearch(graph, visitedSet);
   }
 
   /**
-   * performs a recursive DepthFirstSearch to update the linkedList.
+   * performs a recursive DepthFirstSearch to visit the verticies reachable from a vertex.
    *
-   * @param vertex roots of the vertex.
-   * @param visitedSet visited set of verticies of the graph.
-   * @param vistied linkedList of the vertex.
+   * @param graph the compact graph to search.
+   * @param vertex the id of the vertex to search from.
+   * @param visit called with the id of each vertex, in the order they are visited.
+   * @param visitedSet the ids of the verticies that have been visited.
    */
-  private void recursiveDfs(T vertex, List<T> visited, Set<T> visitedSet) {
+  private void recursiveDfs(
+      CompactGraph<T> graph, int vertex, IntConsumer visit, BitSet visitedSet) {
     // This is a recursive method that implements depth first search
-    if (visitedSet.contains(vertex)) {
+    if (visitedSet.get(vertex)) {
       return;
     }
 
-    visited.add(vertex);
-    visitedSet.add(vertex);
+    visit.accept(vertex);
+    visitedSet.set(vertex);
 
-    Set<T> vert = getVerticies(vertex);
-    for (T v : vert) {
-      recursiveDfs(v, visited, visitedSet);
+    // The row is already in vertex order.
+    for (int i = graph.outStart(vertex); i < graph.outEnd(vertex); i++) {
+      recursiveDfs(graph, graph.outTarget(i), visit, visitedSet);
     }
   }
 }
@@ -0,0 +1,127 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Set;
+
+/**
+ * A report of every property of a graph, gathered together by {@link Graph#analyze()}.
+ *
+ * @param <T> The type of each vertex.
+ */
+public class GraphAnalysis<T> {
+
+  private final int verticies;
+  private final int edges;
+  private final int selfLoops;
+
+  private final boolean reflexive;
+  private final boolean symmetric;
+  private final boolean antiSymmetric;
+  private final boolean transitive;
+
+  private final Set<T> roots;
+
+  private final int minInDegree;
+  private final int maxInDegree;
+  private final int minOutDegree;
+  private final int maxOutDegree;
+
+  /**
+   * Creates a new report.
+   *
+   * @param verticies the number of verticies.
+   * @param edges the number of edges.
+   * @param selfLoops the number of verticies with an edge to themselves.
+   * @param reflexive whether the graph is reflexive.
+   * @param symmetric whether the graph is symmetric.
+   * @param antiSymmetric whether the graph is anti-symmetric.
+   * @param transitive whether the graph is transitive.
+   * @param roots the roots of the graph.
+   * @param inDegrees the smallest and largest in-degree.
+   * @param outDegrees the smallest and largest out-degree.
+   */
+  GraphAnalysis(
+      int verticies,
+      int edges,
+      int selfLoops,
+      boolean reflexive,
+      boolean symmetric,
+      boolean antiSymmetric,
+      boolean transitive,
+      Set<T> roots,
+      int[] inDegrees,
+      int[] outDegrees) {
+    this.verticies = verticies;
+    this.edges = edges;
+    this.selfLoops = selfLoops;
+    this.reflexive = reflexive;
+    this.symmetric = symmetric;
+    this.antiSymmetric = antiSymmetric;
+    this.transitive = transitive;
+    this.roots = roots;
+    this.minInDegree = inDegrees[0];
+    this.maxInDegree = inDegrees[1];
+    this.minOutDegree = outDegrees[0];
+    this.maxOutDegree = outDegrees[1];
+  }
+
+  public int getVerticies() {
+    return verticies;
+  }
+
+  public int getEdges() {
+    return edges;
+  }
+
+  public int getSelfLoops() {
+    return selfLoops;
+  }
+
+  public boolean isReflexive() {
+    return reflexive;
+  }
+
+  public boolean isSymmetric() {
+    return symmetric;
+  }
+
+  public boolean isAntiSymmetric() {
+    return antiSymmetric;
+  }
+
+  public boolean isTransitive() {
+    return transitive;
+  }
+
+  public boolean isEquivalence() {
+    return reflexive && symmetric && transitive;
+  }
+
+  public Set<T> getRoots() {
+    return roots;
+  }
+
+  public int getMinInDegree() {
+    return minInDegree;
+  }
+
+  public int getMaxInDegree() {
+    return maxInDegree;
+  }
+
+  public int getMinOutDegree() {
+    return minOutDegree;
+  }
+
+  public int getMaxOutDegree() {
+    return maxOutDegree;
+  }
+
+  /**
+   * It returns the average degree, which is the same for edges in and out of each vertex.
+   *
+   * @return the number of edges per vertex.
+   */
+  public double getAverageDegree() {
+    return verticies == 0 ? 0 : (double) edges / verticies;
+  }
+}
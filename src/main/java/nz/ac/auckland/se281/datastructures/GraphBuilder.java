@@ -0,0 +1,191 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds a graph of named verticies as it is read, without sets of verticies and edges. Every name
+ * is given a number the first time it is read, in one dictionary that any number of readers can
+ * share, so each name is stored once. Each reader keeps its edges as pairs of numbers in {@link
+ * Edges} of its own, and the pairs go straight into the rows of the {@link CompactGraph}. The
+ * order that everything was read in is kept as a {@link ReadOrder}.
+ */
+public class GraphBuilder {
+
+  private static final int INITIAL_EDGES = 1 << 10;
+
+  private final Map<String, Integer> numbers = new ConcurrentHashMap<>();
+  private final AtomicInteger nextNumber = new AtomicInteger();
+
+  private final List<Edges> readers = new ArrayList<>();
+
+  private ReadOrder readOrder;
+
+  /**
+   * The edges read by one reader, as pairs of the numbers of their ends, and the verticies it read
+   * without an edge.
+   */
+  public static class Edges {
+    private int[] pairs = new int[2 * INITIAL_EDGES];
+    private int size;
+
+    // Each vertex read without an edge, followed by the number of pairs read before it.
+    private int[] statements = new int[0];
+    private int statementSize;
+
+    private Edges() {}
+
+    /**
+     * It adds a vertex that was read without an edge, so that it keeps its place in the order.
+     *
+     * @param number the number of the vertex.
+     */
+    public void vertex(int number) {
+      if (statementSize == statements.length) {
+        statements = Arrays.copyOf(statements, Math.max(2, 2 * statements.length));
+      }
+      statements[statementSize++] = number;
+      statements[statementSize++] = size / 2;
+    }
+
+    /**
+     * It adds an edge, which is kept even if it has been read before.
+     *
+     * @param source the number of the source.
+     * @param destination the number of the destination.
+     */
+    public void add(int source, int destination) {
+      if (size == pairs.length) {
+        pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+      }
+      pairs[size++] = source;
+      pairs[size++] = destination;
+    }
+  }
+
+  /**
+   * It returns the number of a vertex, adding it to the graph the first time it is read. It can be
+   * called from several threads at once.
+   *
+   * @param name the name of the vertex.
+   * @return the number of the vertex.
+   */
+  public int vertex(String name) {
+    Integer number = numbers.get(name);
+    if (number == null) {
+      number = numbers.computeIfAbsent(name, key -> nextNumber.getAndIncrement());
+    }
+    return number;
+  }
+
+  /**
+   * It returns a new list of edges for one reader to add to. Each list should only be added to by
+   * one thread, and the lists are read in the order that they were asked for.
+   *
+   * @return the edges of the reader.
+   */
+  public Edges edges() {
+    Edges edges = new Edges();
+    synchronized (readers) {
+      readers.add(edges);
+    }
+    return edges;
+  }
+
+  /**
+   * It builds the graph of every vertex and edge read so far, and the order they were read in.
+   * The verticies are given ids in the order, so the graph is the same however the reading was
+   * split between threads, unless the order is the insertion order.
+   *
+   * @param order the order to keep the verticies in.
+   * @return the graph.
+   */
+  public Graph<String> build(VertexOrder<String> order) {
+    Object[] names = new Object[nextNumber.get()];
+    for (Map.Entry<String, Integer> entry : numbers.entrySet()) {
+      names[entry.getValue()] = entry.getKey();
+    }
+
+    int[] pairs;
+    int[] statements;
+    synchronized (readers) {
+      statements = joinStatements(readers);
+      pairs = join(readers);
+      readers.clear();
+    }
+
+    // The pairs are overwritten with ids, which are what the read order is kept in.
+    CompactGraph<String> compact = new CompactGraph<String>(names, pairs, order);
+    for (int i = 0; i < statements.length; i += 2) {
+      statements[i] = compact.id((String) names[statements[i]]);
+    }
+    readOrder = new ReadOrder(compact, pairs, statements);
+    return new Graph<>(compact, order);
+  }
+
+  /**
+   * It returns the order that the verticies and edges of the graph last built were read in.
+   *
+   * @return the read order, or null if no graph has been built.
+   */
+  public ReadOrder getReadOrder() {
+    return readOrder;
+  }
+
+  /**
+   * It joins the verticies that every reader read without an edge, counting the pairs before each
+   * one across the readers before it.
+   *
+   * @param readers the edges of every reader.
+   * @return each vertex followed by the number of pairs read before it.
+   */
+  private static int[] joinStatements(List<Edges> readers) {
+    int size = 0;
+    for (Edges edges : readers) {
+      size += edges.statementSize;
+    }
+    int[] statements = new int[size];
+    int position = 0;
+    int pairsBefore = 0;
+    for (Edges edges : readers) {
+      for (int i = 0; i < edges.statementSize; i += 2) {
+        statements[position++] = edges.statements[i];
+        statements[position++] = edges.statements[i + 1] + pairsBefore;
+      }
+      pairsBefore += edges.size / 2;
+      edges.statements = null;
+    }
+    return statements;
+  }
+
+  /**
+   * It joins the edges of every reader into one array of pairs, letting go of each reader's pairs
+   * once they are copied.
+   *
+   * @param readers the edges of every reader.
+   * @return the pairs of every edge.
+   */
+  private static int[] join(List<Edges> readers) {
+    if (readers.size() == 1) {
+      Edges only = readers.get(0);
+      return only.size == only.pairs.length ? only.pairs : Arrays.copyOf(only.pairs, only.size);
+    }
+
+    int size = 0;
+    for (Edges edges : readers) {
+      size += edges.size;
+    }
+    int[] pairs = new int[size];
+    int position = 0;
+    for (Edges edges : readers) {
+      System.arraycopy(edges.pairs, 0, pairs, position, edges.size);
+      position += edges.size;
+      edges.pairs = null;
+    }
+    return pairs;
+  }
+}
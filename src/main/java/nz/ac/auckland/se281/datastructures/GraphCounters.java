@@ -0,0 +1,47 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the work that the searches and property checks of a graph do, once it is given to {@link
+ * Graph#setCounters(GraphCounters)}. The counts can be added to from several threads at once, so
+ * the parallel checks and searches are counted too.
+ *
+ * <p>A vertex is counted each time a check or search visits it. An edge is counted each time an
+ * entry in a row of neighbours is read, or a row is searched for an edge. A search reads the whole
+ * row of every vertex it visits. Results that are already cached are not counted again.
+ */
+public class GraphCounters {
+
+  private final LongAdder verticiesVisited = new LongAdder();
+  private final LongAdder edgesScanned = new LongAdder();
+
+  /**
+   * It adds to the counts.
+   *
+   * @param verticies the number of verticies visited.
+   * @param edges the number of edges scanned.
+   */
+  void add(long verticies, long edges) {
+    verticiesVisited.add(verticies);
+    edgesScanned.add(edges);
+  }
+
+  /**
+   * It returns the number of verticies visited so far.
+   *
+   * @return the number of verticies.
+   */
+  public long getVerticiesVisited() {
+    return verticiesVisited.sum();
+  }
+
+  /**
+   * It returns the number of edges scanned so far.
+   *
+   * @return the number of edges.
+   */
+  public long getEdgesScanned() {
+    return edgesScanned.sum();
+  }
+}
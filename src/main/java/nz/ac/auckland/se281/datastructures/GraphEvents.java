@@ -0,0 +1,85 @@
+package nz.ac.auckland.se281.datastructures;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder events of the graph algorithms, so a recording shows which checks and
+ * searches ran, on how large a graph, and for how long. An event is only filled in and written
+ * when it is enabled in the recording, so they cost next to nothing when nothing is recording.
+ */
+final class GraphEvents {
+
+  private static final String CATEGORY = "Graph Calculator";
+
+  private GraphEvents() {}
+
+  /** A property of the graph being checked, when the result is not already cached. */
+  @Name("nz.ac.auckland.se281.PropertyCheck")
+  @Label("Graph Property Check")
+  @Category(CATEGORY)
+  @Description("A reflexive, symmetric, anti-symmetric or transitive check of a graph")
+  static final class PropertyCheck extends Event {
+    @Label("Property")
+    String property;
+
+    @Label("Variant")
+    @Description("matrix for the bitset relation, rows for the compressed rows")
+    String variant;
+
+    @Label("Verticies")
+    int verticies;
+
+    @Label("Edges")
+    int edges;
+
+    @Label("Result")
+    boolean result;
+  }
+
+  /** The equivalence class of a vertex being looked up. */
+  @Name("nz.ac.auckland.se281.EquivalenceLookup")
+  @Label("Graph Equivalence Class Lookup")
+  @Category(CATEGORY)
+  static final class EquivalenceLookup extends Event {
+    @Label("Vertex")
+    String vertex;
+
+    @Label("Verticies")
+    int verticies;
+
+    @Label("Edges")
+    int edges;
+
+    @Label("Class Size")
+    @Description("The size of the class, or 0 if the graph is not an equivalence relation")
+    int classSize;
+  }
+
+  /** A search of the graph, from when it starts until every reachable vertex has been found. */
+  @Name("nz.ac.auckland.se281.Search")
+  @Label("Graph Search")
+  @Category(CATEGORY)
+  static final class Search extends Event {
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Variant")
+    @Description(
+        "list for a search that returns every vertex, lazy for an iterator or stream, or parallel"
+            + " for a level-synchronous search")
+    String variant;
+
+    @Label("Verticies")
+    int verticies;
+
+    @Label("Edges")
+    int edges;
+
+    @Label("Visited")
+    int visited;
+  }
+}
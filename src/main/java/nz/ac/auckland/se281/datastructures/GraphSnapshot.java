@@ -0,0 +1,352 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A compact binary snapshot of a graph, so that a large graph can be opened again without parsing
+ * its DOT file. The snapshot is read back by memory-mapping each section of the file and copying
+ * it into the arrays of a {@link CompactGraph}. The rows are stored sorted, so nothing is sorted
+ * again, but the names are still decoded and indexed and every offset and id is checked, so a
+ * snapshot takes time in proportion to its size to read. The in-neighbour rows are found again from
+ * the out-neighbour rows rather than read, so the two always agree.
+ *
+ * <p>Every number is a big-endian int. In order, a snapshot holds:
+ *
+ * <ul>
+ *   <li>the header: a magic number, the version, the number of verticies, the number of edges,
+ *       the properties of the graph as flags, the number of roots and the size of the names;
+ *   <li>the vertex dictionary: the start of each name, followed by the end of the last name, and
+ *       then the UTF-8 bytes of every name in id order;
+ *   <li>the out-neighbour offsets and rows, then the in-neighbour offsets and rows;
+ *   <li>the ids of the roots;
+ *   <li>the class of every vertex, only if the graph is an equivalence relation.
+ * </ul>
+ */
+public class GraphSnapshot {
+
+  private static final int MAGIC = 0x47534E50;
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 7 * Integer.BYTES;
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private static final int REFLEXIVE = 1;
+  private static final int SYMMETRIC = 1 << 1;
+  private static final int ANTI_SYMMETRIC = 1 << 2;
+  private static final int TRANSITIVE = 1 << 3;
+  private static final int PARTITIONED = 1 << 4;
+
+  private GraphSnapshot() {}
+
+  /**
+   * It writes a snapshot of the graph, checking every property of the graph first so that they
+   * are stored with it.
+   *
+   * @param graph the graph to write.
+   * @param channel the open channel of the file to write to.
+   * @throws IOException if the file cannot be written.
+   */
+  public static void write(Graph<String> graph, FileChannel channel) throws IOException {
+    CompactGraph<String> compact = graph.compact();
+    GraphAnalysis<String> analysis = graph.analyze();
+    int n = compact.size();
+    int m = compact.edgeCount();
+
+    byte[][] names = new byte[n][];
+    int[] nameOffsets = new int[n + 1];
+    for (int v = 0; v < n; v++) {
+      names[v] = compact.vertex(v).getBytes(StandardCharsets.UTF_8);
+      nameOffsets[v + 1] = Math.addExact(nameOffsets[v], names[v].length);
+    }
+
+    int flags = 0;
+    flags |= analysis.isReflexive() ? REFLEXIVE : 0;
+    flags |= analysis.isSymmetric() ? SYMMETRIC : 0;
+    flags |= analysis.isAntiSymmetric() ? ANTI_SYMMETRIC : 0;
+    flags |= analysis.isTransitive() ? TRANSITIVE : 0;
+    flags |= analysis.isEquivalence() ? PARTITIONED : 0;
+
+    Output out = new Output(channel);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(n);
+    out.writeInt(m);
+    out.writeInt(flags);
+    out.writeInt(analysis.getRoots().size());
+    out.writeInt(nameOffsets[n]);
+
+    for (int offset : nameOffsets) {
+      out.writeInt(offset);
+    }
+    for (byte[] name : names) {
+      out.writeBytes(name);
+    }
+
+    for (int v = 0; v < n; v++) {
+      out.writeInt(compact.outStart(v));
+    }
+    out.writeInt(m);
+    for (int i = 0; i < m; i++) {
+      out.writeInt(compact.outTarget(i));
+    }
+    for (int v = 0; v < n; v++) {
+      out.writeInt(compact.inStart(v));
+    }
+    out.writeInt(m);
+    for (int i = 0; i < m; i++) {
+      out.writeInt(compact.inSource(i));
+    }
+
+    for (String root : analysis.getRoots()) {
+      out.writeInt(compact.id(root));
+    }
+
+    if ((flags & PARTITIONED) != 0) {
+      EquivalencePartition<String> partition = graph.partition();
+      for (int v = 0; v < n; v++) {
+        out.writeInt(partition.classOf(v));
+      }
+    }
+
+    out.flush();
+  }
+
+  /**
+   * It writes a snapshot of a graph whose verticies are named by the numbers 0 to n - 1, given as
+   * out-neighbour rows, so that a large generated graph never has to be built from sets of
+   * verticies and edges first.
+   *
+   * @param outOffsets the start of the out-neighbour row of each vertex, followed by the end of the
+   *     last row.
+   * @param outTargets the out-neighbour rows, each sorted with no duplicates.
+   * @param channel the open channel of the file to write to.
+   * @throws IOException if the file cannot be written.
+   */
+  public static void writeNumbered(int[] outOffsets, int[] outTargets, FileChannel channel)
+      throws IOException {
+    Object[] names = new Object[outOffsets.length - 1];
+    for (int v = 0; v < names.length; v++) {
+      names[v] = String.valueOf(v);
+    }
+    write(
+        new Graph<>(
+            new CompactGraph<String>(names, outOffsets, outTargets), VertexOrder.numerical()),
+        channel);
+  }
+
+  /**
+   * It reads a graph back from a snapshot, with the properties stored in it already cached.
+   *
+   * @param channel the open channel of the snapshot file.
+   * @param order the order the verticies were given ids in when the snapshot was written, which
+   *     the graph is kept in after it changes.
+   * @return the graph.
+   * @throws IOException if the file cannot be read, is not a snapshot or is corrupt.
+   */
+  public static Graph<String> read(FileChannel channel, VertexOrder<String> order)
+      throws IOException {
+    int[] header = readInts(channel, 0, HEADER_SIZE / Integer.BYTES);
+    if (header[0] != MAGIC) {
+      throw new IOException("The file is not a graph snapshot");
+    }
+    if (header[1] != VERSION) {
+      throw new IOException("The graph snapshot has unsupported version " + header[1]);
+    }
+    int n = header[2];
+    int m = header[3];
+    int flags = header[4];
+    int rootCount = header[5];
+    int nameSize = header[6];
+    if (n < 0 || m < 0 || rootCount < 0 || nameSize < 0) {
+      throw corrupt();
+    }
+    long position = HEADER_SIZE;
+
+    int[] nameOffsets = readInts(channel, position, n + 1);
+    checkOffsets(nameOffsets, nameSize);
+    position += (n + 1L) * Integer.BYTES;
+    byte[] names = new byte[nameSize];
+    map(channel, position, nameSize).get(names);
+    position += nameSize;
+
+    Object[] verticies = new Object[n];
+    for (int v = 0; v < n; v++) {
+      int start = nameOffsets[v];
+      verticies[v] = new String(names, start, nameOffsets[v + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    int[] outOffsets = readInts(channel, position, n + 1);
+    position += (n + 1L) * Integer.BYTES;
+    int[] outTargets = readInts(channel, position, m);
+    position += (long) m * Integer.BYTES;
+    checkOffsets(outOffsets, m);
+    checkRows(outOffsets, outTargets, n);
+
+    // The stored in-neighbour rows are skipped and found from the out-neighbour rows instead.
+    position += (n + 1L + m) * Integer.BYTES;
+    CompactGraph<String> compact = new CompactGraph<>(verticies, outOffsets, outTargets);
+
+    Set<String> roots = new LinkedHashSet<>();
+    int[] rootIds = readInts(channel, position, rootCount);
+    checkIds(rootIds, n);
+    for (int id : rootIds) {
+      roots.add(compact.vertex(id));
+    }
+    position += (long) rootCount * Integer.BYTES;
+
+    EquivalencePartition<String> partition = null;
+    if ((flags & PARTITIONED) != 0) {
+      int[] classOf = readInts(channel, position, n);
+      checkIds(classOf, n);
+      partition = new EquivalencePartition<>(compact, classOf);
+    }
+
+    Graph<String> graph = new Graph<>(compact, order);
+    graph.restore(
+        (flags & REFLEXIVE) != 0,
+        (flags & SYMMETRIC) != 0,
+        (flags & ANTI_SYMMETRIC) != 0,
+        (flags & TRANSITIVE) != 0,
+        roots,
+        partition);
+    return graph;
+  }
+
+  /**
+   * It checks that a section of offsets starts at zero, never decreases, and ends at the size of
+   * the section it points into.
+   *
+   * @param offsets the offsets, followed by the end of the last entry.
+   * @param end the size of the section the offsets point into.
+   * @throws IOException if the offsets are not valid.
+   */
+  private static void checkOffsets(int[] offsets, int end) throws IOException {
+    if (offsets[0] != 0 || offsets[offsets.length - 1] != end) {
+      throw corrupt();
+    }
+    for (int i = 1; i < offsets.length; i++) {
+      if (offsets[i] < offsets[i - 1]) {
+        throw corrupt();
+      }
+    }
+  }
+
+  /**
+   * It checks that every row holds ids of verticies, sorted with no duplicates, as the searches
+   * of the {@link CompactGraph} expect.
+   *
+   * @param offsets the start of each row, which have already been checked.
+   * @param entries the entries of every row.
+   * @param n the number of verticies.
+   * @throws IOException if a row is not valid.
+   */
+  private static void checkRows(int[] offsets, int[] entries, int n) throws IOException {
+    for (int v = 0; v < offsets.length - 1; v++) {
+      for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+        if (entries[i] < 0 || entries[i] >= n || (i > offsets[v] && entries[i] <= entries[i - 1])) {
+          throw corrupt();
+        }
+      }
+    }
+  }
+
+  /**
+   * It checks that every id is the id of a vertex.
+   *
+   * @param ids the ids to check.
+   * @param n the number of verticies.
+   * @throws IOException if an id is not valid.
+   */
+  private static void checkIds(int[] ids, int n) throws IOException {
+    for (int id : ids) {
+      if (id < 0 || id >= n) {
+        throw corrupt();
+      }
+    }
+  }
+
+  /**
+   * It creates the error thrown when a snapshot holds a value that cannot be right.
+   *
+   * @return the error.
+   */
+  private static IOException corrupt() {
+    return new IOException("The graph snapshot is corrupt");
+  }
+
+  /**
+   * It memory-maps one section of the file.
+   *
+   * @param channel the open channel of the file.
+   * @param position the position of the section.
+   * @param size the size of the section in bytes.
+   * @return the mapped section.
+   * @throws IOException if the file cannot be read or ends before the section does.
+   */
+  private static ByteBuffer map(FileChannel channel, long position, long size)
+      throws IOException {
+    if (size < 0 || position + size > channel.size()) {
+      throw new IOException("The graph snapshot is truncated");
+    }
+    return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+  }
+
+  /**
+   * It memory-maps a section of ints and copies them into an array at once.
+   *
+   * @param channel the open channel of the file.
+   * @param position the position of the section.
+   * @param count the number of ints in the section.
+   * @return the ints of the section.
+   * @throws IOException if the file cannot be read or ends before the section does.
+   */
+  private static int[] readInts(FileChannel channel, long position, int count)
+      throws IOException {
+    IntBuffer ints = map(channel, position, (long) count * Integer.BYTES).asIntBuffer();
+    int[] values = new int[count];
+    ints.get(values);
+    return values;
+  }
+
+  /** A buffer that collects what is written and writes it to the channel when it fills up. */
+  private static class Output {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    Output(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    void writeInt(int value) throws IOException {
+      if (buffer.remaining() < Integer.BYTES) {
+        flush();
+      }
+      buffer.putInt(value);
+    }
+
+    void writeBytes(byte[] bytes) throws IOException {
+      int offset = 0;
+      while (offset < bytes.length) {
+        if (!buffer.hasRemaining()) {
+          flush();
+        }
+        int count = Math.min(buffer.remaining(), bytes.length - offset);
+        buffer.put(bytes, offset, count);
+        offset += count;
+      }
+    }
+
+    void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * A first-in first-out queue of vertex ids stored in a ring buffer. The capacity is always a power
+ * of two, so the ends wrap around with a mask rather than a division, and the buffer only
+ * allocates when it doubles.
+ */
+class IntQueue {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private int[] elements;
+  private int head;
+  private int size;
+
+  /** Creates an empty queue. */
+  IntQueue() {
+    this(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Creates an empty queue that can hold the given number of ids before it grows.
+   *
+   * @param capacity the number of ids to make room for.
+   */
+  IntQueue(int capacity) {
+    int powerOfTwo = Integer.highestOneBit(Math.max(capacity, INITIAL_CAPACITY) - 1) << 1;
+    this.elements = new int[powerOfTwo];
+  }
+
+  /**
+   * It adds the id to the tail of the queue, doubling the buffer if it is full.
+   *
+   * @param id the id to add.
+   */
+  void enqueue(int id) {
+    if (size == elements.length) {
+      grow();
+    }
+    elements[(head + size) & (elements.length - 1)] = id;
+    size++;
+  }
+
+  /**
+   * It removes the id at the head of the queue.
+   *
+   * @return the id that was at the head of the queue.
+   */
+  int dequeue() {
+    int id = elements[head];
+    head = (head + 1) & (elements.length - 1);
+    size--;
+    return id;
+  }
+
+  /**
+   * It returns the id at the head of the queue without removing it.
+   *
+   * @return the id at the head of the queue.
+   */
+  int peek() {
+    return elements[head];
+  }
+
+  /**
+   * It checks if the queue is empty.
+   *
+   * @return the boolean value of whether the queue is empty or not.
+   */
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** It doubles the buffer, moving the ids so the head is at the start again. */
+  private void grow() {
+    int[] larger = new int[elements.length * 2];
+    int first = elements.length - head;
+    System.arraycopy(elements, head, larger, 0, first);
+    System.arraycopy(elements, 0, larger, first, head);
+    elements = larger;
+    head = 0;
+  }
+}
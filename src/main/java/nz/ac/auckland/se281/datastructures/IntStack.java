@@ -0,0 +1,45 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * A stack of vertex ids stored in a growable {@code int} array, so pushing and popping never
+ * allocate once the array is large enough.
+ */
+class IntStack {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private int[] elements = new int[INITIAL_CAPACITY];
+  private int size;
+
+  /**
+   * It adds the id to the top of the stack, doubling the array if it is full.
+   *
+   * @param id the id to push.
+   */
+  void push(int id) {
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, size * 2);
+    }
+    elements[size++] = id;
+  }
+
+  /**
+   * It removes the id on the top of the stack.
+   *
+   * @return the id that was on the top of the stack.
+   */
+  int pop() {
+    return elements[--size];
+  }
+
+  /**
+   * It checks if the stack is empty.
+   *
+   * @return the boolean value of whether the stack is empty or not.
+   */
+  boolean isEmpty() {
+    return size == 0;
+  }
+}
@@ -1,3 +1,83 @@
 package nz.ac.auckland.se281.datastructures;
 
-public class NumericalComparator {}
+import java.util.Comparator;
+
+/**
+ * Compares verticies by the number that their names are, such as "2" before "10". Names that are
+ * not whole numbers, such as host names, come after every number and are compared as text. Names
+ * of the same number, such as "1", "01" and "+1", are different verticies, so they are compared as
+ * text too.
+ *
+ * <p>The names are parsed on every comparison. To sort many verticies, {@link
+ * VertexOrder#numerical()} parses each name only once.
+ */
+public class NumericalComparator implements Comparator<Object> {
+
+  // Numbers with more digits than this might not fit in a long, so they are compared as text.
+  private static final int MAX_DIGITS = 18;
+
+  /**
+   * It checks if the name of a vertex is a whole number that fits in a long.
+   *
+   * @param name the name of the vertex.
+   * @return the boolean value of whether the name is a number or not.
+   */
+  static boolean isNumber(String name) {
+    int start = name.startsWith("-") || name.startsWith("+") ? 1 : 0;
+    if (name.length() == start || name.length() - start > MAX_DIGITS) {
+      return false;
+    }
+    for (int i = start; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * It compares two names that have already been checked with {@link #isNumber(String)}.
+   *
+   * @param name1 the first name.
+   * @param isNumber1 whether the first name is a number.
+   * @param key1 the value of the first name, if it is a number.
+   * @param name2 the second name.
+   * @param isNumber2 whether the second name is a number.
+   * @param key2 the value of the second name, if it is a number.
+   * @return the integer value of the comparison.
+   */
+  static int compare(
+      String name1, boolean isNumber1, long key1, String name2, boolean isNumber2, long key2) {
+    if (isNumber1 && isNumber2) {
+      int result = Long.compare(key1, key2);
+      return result != 0 ? result : name1.compareTo(name2);
+    }
+    if (isNumber1 != isNumber2) {
+      return isNumber1 ? -1 : 1;
+    }
+    return name1.compareTo(name2);
+  }
+
+  /**
+   * It compares two verticies by the numbers that their names are.
+   *
+   * @param o1 the first vertex to compare.
+   * @param o2 the second vertex to compare.
+   * @return the integer value of the comparison.
+   */
+  @Override
+  public int compare(Object o1, Object o2) {
+    String name1 = o1.toString();
+    String name2 = o2.toString();
+    boolean isNumber1 = isNumber(name1);
+    boolean isNumber2 = isNumber(name2);
+    return compare(
+        name1,
+        isNumber1,
+        isNumber1 ? Long.parseLong(name1) : 0,
+        name2,
+        isNumber2,
+        isNumber2 ? Long.parseLong(name2) : 0);
+  }
+}
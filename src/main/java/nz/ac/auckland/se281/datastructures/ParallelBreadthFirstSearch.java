@@ -0,0 +1,188 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * A level-synchronous breadth first search of a compact graph that expands each level in parallel
+ * on the common fork-join pool. Verticies are claimed with an atomic bitset, so each is visited
+ * exactly once however many threads reach it.
+ *
+ * <p>Small frontiers are expanded top-down, by scanning the out-neighbours of every frontier
+ * vertex. Once the frontier has more edges than the unvisited verticies, it is cheaper to expand
+ * bottom-up instead, by scanning the in-neighbours of every unvisited vertex until one is found in
+ * the frontier. The search switches back to top-down when the frontier shrinks again.
+ */
+class ParallelBreadthFirstSearch {
+
+  // Switch to bottom-up when the frontier has more than 1/ALPHA of the unexplored edges.
+  private static final int ALPHA = 14;
+
+  // Switch back to top-down when the frontier has fewer than 1/BETA of the verticies.
+  private static final int BETA = 24;
+
+  // The number of frontier verticies, or of all verticies when bottom-up, in each parallel task.
+  private static final int VERTICIES_PER_TASK = 1 << 11;
+
+  private final CompactGraph<?> graph;
+  private final AtomicLongArray visited;
+  private final int[] depths;
+
+  /**
+   * It searches the graph from the roots, level by level.
+   *
+   * @param graph the graph to search.
+   * @param roots the ids of the verticies in level 0.
+   * @param canonical whether to sort each level by id, so the result is the same on every run.
+   * @return the level of every vertex and the verticies of every level.
+   */
+  static <T> BreadthFirstLevels<T> search(CompactGraph<T> graph, int[] roots, boolean canonical) {
+    return new ParallelBreadthFirstSearch(graph).run(graph, roots, canonical);
+  }
+
+  private ParallelBreadthFirstSearch(CompactGraph<?> graph) {
+    this.graph = graph;
+    this.visited = new AtomicLongArray((graph.size() + Long.SIZE - 1) / Long.SIZE);
+    this.depths = new int[graph.size()];
+    Arrays.fill(depths, -1);
+  }
+
+  private <T> BreadthFirstLevels<T> run(CompactGraph<T> graph, int[] roots, boolean canonical) {
+    int n = graph.size();
+    int[] order = new int[n];
+    int[] levelOffsets = new int[n + 2];
+    int visitedCount = 0;
+    int levels = 0;
+
+    int[] frontier = Arrays.stream(roots).filter(this::claim).toArray();
+    for (int root : frontier) {
+      depths[root] = 0;
+    }
+
+    // The edges leaving verticies that have not been visited yet.
+    long unexploredEdges = graph.edgeCount();
+    boolean bottomUp = false;
+
+    while (frontier.length > 0) {
+      if (canonical) {
+        Arrays.parallelSort(frontier);
+      }
+      System.arraycopy(frontier, 0, order, visitedCount, frontier.length);
+      visitedCount += frontier.length;
+      levelOffsets[++levels] = visitedCount;
+
+      long frontierEdges = 0;
+      for (int v : frontier) {
+        frontierEdges += graph.outDegree(v);
+      }
+      unexploredEdges -= frontierEdges;
+
+      if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+        bottomUp = true;
+      } else if (bottomUp && frontier.length < n / BETA) {
+        bottomUp = false;
+      }
+
+      int level = levels - 1;
+      frontier = bottomUp ? expandBottomUp(level) : expandTopDown(frontier, level);
+    }
+
+    return new BreadthFirstLevels<>(
+        graph, depths, Arrays.copyOf(order, visitedCount), Arrays.copyOf(levelOffsets, levels + 1));
+  }
+
+  /**
+   * It finds the next level by scanning the out-neighbours of every vertex in the frontier.
+   *
+   * @param frontier the ids of the verticies in the current level.
+   * @param level the current level.
+   * @return the ids of the verticies in the next level.
+   */
+  private int[] expandTopDown(int[] frontier, int level) {
+    int tasks = (frontier.length + VERTICIES_PER_TASK - 1) / VERTICIES_PER_TASK;
+    return concat(
+        IntStream.range(0, tasks)
+            .parallel()
+            .mapToObj(
+                task -> {
+                  IntStream.Builder next = IntStream.builder();
+                  int end = Math.min(frontier.length, (task + 1) * VERTICIES_PER_TASK);
+                  for (int f = task * VERTICIES_PER_TASK; f < end; f++) {
+                    int v = frontier[f];
+                    for (int i = graph.outStart(v); i < graph.outEnd(v); i++) {
+                      int target = graph.outTarget(i);
+                      if (claim(target)) {
+                        depths[target] = level + 1;
+                        next.add(target);
+                      }
+                    }
+                  }
+                  return next.build().toArray();
+                })
+            .toArray(int[][]::new));
+  }
+
+  /**
+   * It finds the next level by checking every unvisited vertex for an in-neighbour in the current
+   * level. Each vertex is only checked by one task, so the next level is found in id order.
+   *
+   * @param level the current level.
+   * @return the ids of the verticies in the next level.
+   */
+  private int[] expandBottomUp(int level) {
+    int n = graph.size();
+    int tasks = (n + VERTICIES_PER_TASK - 1) / VERTICIES_PER_TASK;
+    return concat(
+        IntStream.range(0, tasks)
+            .parallel()
+            .mapToObj(
+                task -> {
+                  IntStream.Builder next = IntStream.builder();
+                  int end = Math.min(n, (task + 1) * VERTICIES_PER_TASK);
+                  for (int v = task * VERTICIES_PER_TASK; v < end; v++) {
+                    if (isVisited(v)) {
+                      continue;
+                    }
+                    for (int i = graph.inStart(v); i < graph.inEnd(v); i++) {
+                      // Depths of the current level were all set before this level started.
+                      if (depths[graph.inSource(i)] == level && claim(v)) {
+                        depths[v] = level + 1;
+                        next.add(v);
+                        break;
+                      }
+                    }
+                  }
+                  return next.build().toArray();
+                })
+            .toArray(int[][]::new));
+  }
+
+  private static int[] concat(int[][] parts) {
+    return Arrays.stream(parts).flatMapToInt(Arrays::stream).toArray();
+  }
+
+  private boolean isVisited(int id) {
+    return (visited.get(id >>> 6) & (1L << id)) != 0;
+  }
+
+  /**
+   * It marks the vertex as visited, unless it has been already.
+   *
+   * @param id the id of the vertex.
+   * @return the boolean value of whether this call was the one that visited the vertex.
+   */
+  private boolean claim(int id) {
+    int word = id >>> 6;
+    long bit = 1L << id;
+    while (true) {
+      long current = visited.get(word);
+      if ((current & bit) != 0) {
+        return false;
+      }
+      if (visited.compareAndSet(word, current, current | bit)) {
+        return true;
+      }
+    }
+  }
+}
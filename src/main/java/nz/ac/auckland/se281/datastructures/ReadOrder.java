@@ -0,0 +1,170 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The order that the verticies and edges of a graph were first read in, such as the order they
+ * appear in a file, kept beside the graph so that they can be listed in that order. A vertex is
+ * kept once, where it first appeared, and so is an edge that was read more than once. The edges are
+ * kept as pairs of positions in the list of verticies, so only a reference to each name and two
+ * numbers for each edge are held, rather than sets of copies.
+ */
+public class ReadOrder {
+
+  private String[] verticies;
+  private int vertexCount;
+
+  private int[] edges;
+  private int edgeCount;
+
+  /**
+   * Creates the read order of a graph from its edges in the order they were read, along with any
+   * verticies that were read without an edge.
+   *
+   * @param graph the graph that was read.
+   * @param pairs the ids of the source and then the destination of each edge, in the order they
+   *     were read and possibly repeated.
+   * @param statements the id of each vertex read without an edge, followed by the number of edges
+   *     read before it.
+   */
+  ReadOrder(CompactGraph<String> graph, int[] pairs, int[] statements) {
+    int[] positions = new int[graph.size()];
+    Arrays.fill(positions, -1);
+    this.verticies = new String[graph.size()];
+    this.edges = new int[pairs.length];
+
+    // An edge is only kept where it is first read, so each edge of the graph is marked once it is.
+    BitSet read = new BitSet(graph.edgeCount());
+    int statement = 0;
+    for (int i = 0; i < pairs.length / 2; i++) {
+      for (; statement < statements.length && statements[statement + 1] <= i; statement += 2) {
+        position(graph, positions, statements[statement]);
+      }
+
+      int source = pairs[2 * i];
+      int destination = pairs[2 * i + 1];
+      int index = graph.edgeIndex(source, destination);
+      if (!read.get(index)) {
+        read.set(index);
+        edges[edgeCount++] = position(graph, positions, source);
+        edges[edgeCount++] = position(graph, positions, destination);
+      }
+    }
+    for (; statement < statements.length; statement += 2) {
+      position(graph, positions, statements[statement]);
+    }
+    this.edges = Arrays.copyOf(edges, edgeCount);
+  }
+
+  /**
+   * It returns the position of a vertex in the read order, adding it to the end the first time.
+   *
+   * @param graph the graph that was read.
+   * @param positions the position of each id that has been read, or -1 if it has not.
+   * @param id the id of the vertex in the graph.
+   * @return the position of the vertex.
+   */
+  private int position(CompactGraph<String> graph, int[] positions, int id) {
+    if (positions[id] < 0) {
+      positions[id] = vertexCount;
+      verticies[vertexCount++] = graph.vertex(id);
+    }
+    return positions[id];
+  }
+
+  /**
+   * It returns the position of a vertex in the read order, adding it to the end if it has not been
+   * read. The verticies are searched one by one, as changes to the graph are uncommon.
+   *
+   * @param vertex the vertex to find.
+   * @return the position of the vertex.
+   */
+  private int position(String vertex) {
+    for (int i = 0; i < vertexCount; i++) {
+      if (verticies[i].equals(vertex)) {
+        return i;
+      }
+    }
+    if (vertexCount == verticies.length) {
+      verticies = Arrays.copyOf(verticies, Math.max(1, 2 * vertexCount));
+    }
+    verticies[vertexCount] = vertex;
+    return vertexCount++;
+  }
+
+  /**
+   * It adds an edge that has been added to the graph to the end of the order, along with either
+   * end that has not been read yet.
+   *
+   * @param source the source of the edge.
+   * @param destination the destination of the edge.
+   */
+  public void addEdge(String source, String destination) {
+    int sourcePosition = position(source);
+    int destinationPosition = position(destination);
+    if (edgeCount == edges.length) {
+      edges = Arrays.copyOf(edges, Math.max(2, 2 * edgeCount));
+    }
+    edges[edgeCount++] = sourcePosition;
+    edges[edgeCount++] = destinationPosition;
+  }
+
+  /**
+   * It removes an edge that has been removed from the graph, keeping both of its ends.
+   *
+   * @param source the source of the edge.
+   * @param destination the destination of the edge.
+   */
+  public void removeEdge(String source, String destination) {
+    for (int i = 0; i < edgeCount; i += 2) {
+      if (verticies[edges[i]].equals(source) && verticies[edges[i + 1]].equals(destination)) {
+        System.arraycopy(edges, i + 2, edges, i, edgeCount - i - 2);
+        edgeCount -= 2;
+        return;
+      }
+    }
+  }
+
+  /**
+   * It returns the verticies in the order they were first read.
+   *
+   * @return the read-only list of verticies.
+   */
+  public List<String> verticies() {
+    return new AbstractList<String>() {
+      @Override
+      public String get(int index) {
+        return verticies[Objects.checkIndex(index, vertexCount)];
+      }
+
+      @Override
+      public int size() {
+        return vertexCount;
+      }
+    };
+  }
+
+  /**
+   * It returns the edges in the order they were first read.
+   *
+   * @return the read-only list of edges.
+   */
+  public List<Edge<String>> edges() {
+    return new AbstractList<Edge<String>>() {
+      @Override
+      public Edge<String> get(int index) {
+        Objects.checkIndex(index, edgeCount / 2);
+        return new Edge<>(verticies[edges[2 * index]], verticies[edges[2 * index + 1]]);
+      }
+
+      @Override
+      public int size() {
+        return edgeCount / 2;
+      }
+    };
+  }
+}
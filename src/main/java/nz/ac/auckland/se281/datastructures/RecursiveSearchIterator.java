@@ -0,0 +1,203 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * An iterator over a recursive search that runs on a thread of its own, with a stack large enough
+ * for the graph. The search hands the ids it visits over in chunks through a small queue, so it
+ * only runs a few chunks ahead of the caller and the whole order is never held in memory. If the
+ * iterator is dropped before the search ends, the search stops the next time it waits for room.
+ *
+ * @param <T> The type of each vertex.
+ */
+class RecursiveSearchIterator<T> implements Iterator<T> {
+
+  private static final int CHUNK_SIZE = 1 << 10;
+
+  private static final int QUEUED_CHUNKS = 4;
+
+  // How long the search waits for room before checking if the iterator is still being used.
+  private static final long WAIT_MILLIS = 100;
+
+  // Put on the queue once the search has visited every vertex it can reach.
+  private static final int[] END = new int[0];
+
+  private final CompactGraph<T> graph;
+  private final BlockingQueue<Object> chunks = new ArrayBlockingQueue<>(QUEUED_CHUNKS);
+  private final GraphEvents.Search event;
+
+  private int[] chunk = new int[0];
+  private int index;
+  private int visitedCount;
+  private boolean finished;
+
+  /**
+   * It starts a recursive search on a thread of its own.
+   *
+   * @param graph the graph being searched.
+   * @param search the search, which visits the id of each vertex it finds in order.
+   * @param stackSize the stack size of the thread the search runs on.
+   * @param event the event to write once every reachable vertex has been visited.
+   */
+  RecursiveSearchIterator(
+      CompactGraph<T> graph,
+      Consumer<IntConsumer> search,
+      long stackSize,
+      GraphEvents.Search event) {
+    this.graph = graph;
+    this.event = event;
+
+    // The search only holds the iterator weakly, so it can tell when the iterator is dropped.
+    Search producer = new Search(search, chunks, new WeakReference<>(this));
+    Thread thread = new Thread(null, producer, "graph-recursive-search", stackSize);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (index == chunk.length) {
+      if (finished) {
+        return false;
+      }
+      Object next = take();
+      if (next == END) {
+        finish();
+        return false;
+      }
+      if (next instanceof Throwable) {
+        finished = true;
+        rethrow((Throwable) next);
+      }
+      chunk = (int[]) next;
+      index = 0;
+    }
+    return true;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    visitedCount++;
+    return graph.vertex(chunk[index++]);
+  }
+
+  /**
+   * It waits for the next chunk of the search.
+   *
+   * @return the chunk of ids, {@link #END}, or the error that ended the search.
+   */
+  private Object take() {
+    try {
+      return chunks.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while searching the graph", e);
+    }
+  }
+
+  /** It writes the event of the search, once the search has run out of verticies. */
+  private void finish() {
+    finished = true;
+    event.end();
+    if (event.shouldCommit()) {
+      event.visited = visitedCount;
+      event.commit();
+    }
+  }
+
+  /**
+   * It throws an error from the search again on the thread that is iterating.
+   *
+   * @param cause the error thrown by the search.
+   */
+  private static void rethrow(Throwable cause) {
+    if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    }
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    throw new IllegalStateException(cause);
+  }
+
+  /** Thrown through the recursion to stop a search whose iterator has been dropped. */
+  private static class Dropped extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    Dropped() {
+      super(null, null, false, false);
+    }
+  }
+
+  /** The search itself, which runs on its own thread and fills the queue. */
+  private static class Search implements Runnable, IntConsumer {
+    private final Consumer<IntConsumer> search;
+    private final BlockingQueue<Object> chunks;
+    private final WeakReference<?> iterator;
+
+    private int[] chunk = new int[CHUNK_SIZE];
+    private int size;
+
+    Search(Consumer<IntConsumer> search, BlockingQueue<Object> chunks, WeakReference<?> iterator) {
+      this.search = search;
+      this.chunks = chunks;
+      this.iterator = iterator;
+    }
+
+    @Override
+    public void run() {
+      try {
+        search.accept(this);
+        put(Arrays.copyOf(chunk, size));
+        put(END);
+      } catch (Dropped e) {
+        // Nothing is waiting for the rest of the search.
+      } catch (Throwable e) {
+        // The recursion has unwound, so there is room on the stack to hand the error over.
+        try {
+          put(e);
+        } catch (Dropped dropped) {
+          // Nothing is waiting for the error either.
+        }
+      }
+    }
+
+    @Override
+    public void accept(int id) {
+      chunk[size++] = id;
+      if (size == CHUNK_SIZE) {
+        put(chunk);
+        chunk = new int[CHUNK_SIZE];
+        size = 0;
+      }
+    }
+
+    /**
+     * It waits for room on the queue, and stops the search if the iterator has been dropped.
+     *
+     * @param next the chunk, {@link #END} or error to hand over.
+     */
+    private void put(Object next) {
+      try {
+        while (!chunks.offer(next, WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+          if (iterator.get() == null) {
+            throw new Dropped();
+          }
+        }
+      } catch (InterruptedException e) {
+        throw new Dropped();
+      }
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * The edges of a graph as a binary relation, stored as one bitset row per vertex. Bit {@code j} of
+ * row {@code i} is set when there is an edge from vertex {@code i} to vertex {@code j}, so whole
+ * rows can be compared 64 verticies at a time.
+ */
+class RelationMatrix {
+
+  // The matrix is never allowed to grow past 512MB.
+  private static final long MAX_WORDS = 1L << 26;
+
+  /**
+   * It checks if a relation of the given size is dense enough for a bitset matrix to pay off. The
+   * matrix is only used when it takes no more words than there are edges, so it is never larger
+   * than the compressed rows it is built from.
+   *
+   * @param verticies the number of verticies in the graph.
+   * @param edges the number of edges in the graph.
+   * @return the boolean value of whether a matrix should be built or not.
+   */
+  static boolean suits(int verticies, int edges) {
+    long words = (long) verticies * wordsPerRow(verticies);
+    return words <= MAX_WORDS && words <= edges;
+  }
+
+  private static int wordsPerRow(int verticies) {
+    return (verticies + Long.SIZE - 1) / Long.SIZE;
+  }
+
+  private final int size;
+  private final long[][] rows;
+
+  /**
+   * Creates the relation matrix of a compact graph.
+   *
+   * @param graph the graph to build the relation of.
+   */
+  RelationMatrix(CompactGraph<?> graph) {
+    this.size = graph.size();
+    this.rows = new long[size][wordsPerRow(size)];
+    for (int v = 0; v < size; v++) {
+      long[] row = rows[v];
+      for (int i = graph.outStart(v); i < graph.outEnd(v); i++) {
+        int target = graph.outTarget(i);
+        row[target >>> 6] |= 1L << target;
+      }
+    }
+  }
+
+  private boolean get(int row, int column) {
+    return (rows[row][column >>> 6] & (1L << column)) != 0;
+  }
+
+  /**
+   * It checks if every vertex is related to itself, by reading the diagonal.
+   *
+   * @return the boolean value of whether the relation is reflexive or not.
+   */
+  boolean isReflexive() {
+    for (int v = 0; v < size; v++) {
+      if (!get(v, v)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * It checks if every row equals its transposed row, by testing the mirror bit of each set bit.
+   *
+   * @return the boolean value of whether the relation is symmetric or not.
+   */
+  boolean isSymmetric() {
+    for (int v = 0; v < size; v++) {
+      long[] row = rows[v];
+      for (int w = 0; w < row.length; w++) {
+        long word = row[w];
+        while (word != 0) {
+          int column = (w << 6) + Long.numberOfTrailingZeros(word);
+          if (!get(column, v)) {
+            return false;
+          }
+          word &= word - 1;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * It checks if no row shares an off-diagonal bit with its transposed row.
+   *
+   * @return the boolean value of whether the relation is anti-symmetric or not.
+   */
+  boolean isAntiSymmetric() {
+    for (int v = 0; v < size; v++) {
+      long[] row = rows[v];
+      for (int w = 0; w < row.length; w++) {
+        long word = row[w];
+        while (word != 0) {
+          int column = (w << 6) + Long.numberOfTrailingZeros(word);
+          if (column != v && get(column, v)) {
+            return false;
+          }
+          word &= word - 1;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * It checks if the relation is transitive. For every edge (a, b), row b must be a subset of row
+   * a, which is checked one word at a time.
+   *
+   * @return the boolean value of whether the relation is transitive or not.
+   */
+  boolean isTransitive() {
+    for (int v = 0; v < size; v++) {
+      long[] row = rows[v];
+      for (int w = 0; w < row.length; w++) {
+        long word = row[w];
+        while (word != 0) {
+          int column = (w << 6) + Long.numberOfTrailingZeros(word);
+          if (column != v && !contains(row, rows[column])) {
+            return false;
+          }
+          word &= word - 1;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean contains(long[] superset, long[] subset) {
+    for (int w = 0; w < subset.length; w++) {
+      if ((subset[w] & ~superset[w]) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,91 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A parallel check of whether the edges of a compact graph are transitive. The verticies are split
+ * into ranges of roughly equal numbers of edges, and each range is checked in its own fork-join
+ * task. For every edge (a, b), the sorted row of b must be contained in the sorted row of a. As
+ * soon as one task finds an edge that breaks this, every other task stops.
+ */
+class TransitivityCheck extends RecursiveAction {
+
+  private static final long serialVersionUID = 1L;
+
+  // Ranges with fewer edges than this are checked without splitting further.
+  private static final int EDGES_PER_TASK = 1 << 13;
+
+  /**
+   * It checks if the graph is transitive, in parallel on the common fork-join pool.
+   *
+   * @param graph the graph to check.
+   * @param counters the counters to add the checked verticies and rows to, or null.
+   * @return the boolean value of whether the graph is transitive or not.
+   */
+  static boolean isTransitive(CompactGraph<?> graph, GraphCounters counters) {
+    AtomicBoolean violated = new AtomicBoolean();
+    new TransitivityCheck(graph, 0, graph.size(), violated, counters).invoke();
+    return !violated.get();
+  }
+
+  private final transient CompactGraph<?> graph;
+  private final int start;
+  private final int end;
+  private final AtomicBoolean violated;
+  private final transient GraphCounters counters;
+
+  private TransitivityCheck(
+      CompactGraph<?> graph,
+      int start,
+      int end,
+      AtomicBoolean violated,
+      GraphCounters counters) {
+    this.graph = graph;
+    this.start = start;
+    this.end = end;
+    this.violated = violated;
+    this.counters = counters;
+  }
+
+  @Override
+  protected void compute() {
+    if (violated.get()) {
+      return;
+    }
+
+    int edges = graph.outStart(end) - graph.outStart(start);
+    if (edges > EDGES_PER_TASK && end - start > 1) {
+      int middle = (start + end) >>> 1;
+      invokeAll(
+          new TransitivityCheck(graph, start, middle, violated, counters),
+          new TransitivityCheck(graph, middle, end, violated, counters));
+      return;
+    }
+
+    // Each edge (a, b) reads the row of b, and the rows of a task are counted when it stops.
+    long checked = 0;
+    long scanned = 0;
+    try {
+      for (int v = start; v < end; v++) {
+        // Stop early if another task has already found an edge that is not transitive.
+        if (violated.get()) {
+          return;
+        }
+        checked++;
+        for (int i = graph.outStart(v); i < graph.outEnd(v); i++) {
+          int target = graph.outTarget(i);
+          scanned += 1 + graph.outDegree(target);
+          if (target != v && !graph.outRowContained(target, v)) {
+            violated.set(true);
+            return;
+          }
+        }
+      }
+    } finally {
+      if (counters != null) {
+        counters.add(checked, scanned);
+      }
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package nz.ac.auckland.se281.datastructures;
+
+/** The orders that {@link Graph#traverse(Traversal)} can visit the verticies of a graph in. */
+public enum Traversal {
+  /** The order of {@link Graph#iterativeBreadthFirstSearch()}. */
+  ITERATIVE_BREADTH_FIRST,
+
+  /** The order of {@link Graph#iterativeDepthFirstSearch()}. */
+  ITERATIVE_DEPTH_FIRST,
+
+  /** The order of {@link Graph#recursiveBreadthFirstSearch()}. */
+  RECURSIVE_BREADTH_FIRST,
+
+  /** The order of {@link Graph#recursiveDepthFirstSearch()}. */
+  RECURSIVE_DEPTH_FIRST
+}
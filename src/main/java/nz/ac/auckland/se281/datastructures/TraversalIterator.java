@@ -0,0 +1,200 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An iterator that searches a compact graph one vertex at a time, so the search only goes as far
+ * as the verticies that are asked for. The roots are searched from in order, and each search
+ * continues from the next root that has not been visited yet.
+ *
+ * @param <T> The type of each vertex.
+ */
+abstract class TraversalIterator<T> implements Iterator<T> {
+
+  private static final int NOT_ADVANCED = -2;
+
+  /**
+   * It creates an iterator that searches the graph in breadth first order, which is the order of
+   * both the iterative and the recursive breadth first searches.
+   *
+   * @param graph the graph to search.
+   * @param roots the ids of the roots, in the order they are searched from.
+   * @param counters the counters to add each visited vertex and its row to, or null.
+   * @param event the event to write once every reachable vertex has been visited.
+   * @return the iterator over the verticies.
+   */
+  static <T> Iterator<T> breadthFirst(
+      CompactGraph<T> graph, int[] roots, GraphCounters counters, GraphEvents.Search event) {
+    return new BreadthFirst<>(graph, roots, counters, event);
+  }
+
+  /**
+   * It creates an iterator that searches the graph in depth first order, which is the order of
+   * both the iterative and the recursive depth first searches.
+   *
+   * @param graph the graph to search.
+   * @param roots the ids of the roots, in the order they are searched from.
+   * @param counters the counters to add each visited vertex and its row to, or null.
+   * @param event the event to write once every reachable vertex has been visited.
+   * @return the iterator over the verticies.
+   */
+  static <T> Iterator<T> depthFirst(
+      CompactGraph<T> graph, int[] roots, GraphCounters counters, GraphEvents.Search event) {
+    return new DepthFirst<>(graph, roots, counters, event);
+  }
+
+  protected final CompactGraph<T> graph;
+  protected final BitSet visited;
+  private final int[] roots;
+  private final GraphCounters counters;
+  private final GraphEvents.Search event;
+  private int nextRoot;
+  private int visitedCount;
+  private boolean finished;
+
+  // The id of the next vertex, or NOT_ADVANCED if the search has not found it yet.
+  private int next = NOT_ADVANCED;
+
+  private TraversalIterator(
+      CompactGraph<T> graph, int[] roots, GraphCounters counters, GraphEvents.Search event) {
+    this.graph = graph;
+    this.visited = new BitSet(graph.size());
+    this.roots = roots;
+    this.counters = counters;
+    this.event = event;
+  }
+
+  /**
+   * It returns the next root that has not been visited yet.
+   *
+   * @return the id of the root, or -1 if every root has been visited.
+   */
+  protected int nextUnvisitedRoot() {
+    while (nextRoot < roots.length) {
+      int root = roots[nextRoot++];
+      if (!visited.get(root)) {
+        return root;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * It visits the next vertex in the search.
+   *
+   * @return the id of the vertex, or -1 if every reachable vertex has been visited.
+   */
+  protected abstract int advance();
+
+  @Override
+  public boolean hasNext() {
+    if (next == NOT_ADVANCED) {
+      next = advance();
+      if (next >= 0) {
+        visitedCount++;
+      } else {
+        finish();
+      }
+    }
+    return next >= 0;
+  }
+
+  /** It writes the event of the search, the first time the search runs out of verticies. */
+  private void finish() {
+    if (finished) {
+      return;
+    }
+    finished = true;
+    event.end();
+    if (event.shouldCommit()) {
+      event.visited = visitedCount;
+      event.commit();
+    }
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    T vertex = graph.vertex(next);
+    if (counters != null) {
+      counters.add(1, graph.outDegree(next));
+    }
+    next = NOT_ADVANCED;
+    return vertex;
+  }
+
+  /** A breadth first search, where each vertex is marked when it is queued. */
+  private static class BreadthFirst<T> extends TraversalIterator<T> {
+    private final IntQueue queue = new IntQueue();
+
+    BreadthFirst(
+        CompactGraph<T> graph, int[] roots, GraphCounters counters, GraphEvents.Search event) {
+      super(graph, roots, counters, event);
+    }
+
+    @Override
+    protected int advance() {
+      if (queue.isEmpty()) {
+        int root = nextUnvisitedRoot();
+        if (root < 0) {
+          return -1;
+        }
+        visited.set(root);
+        queue.enqueue(root);
+      }
+
+      // Verticies leave the queue in the order they entered it, which is the order they were found.
+      int current = queue.dequeue();
+      for (int i = graph.outStart(current); i < graph.outEnd(current); i++) {
+        int target = graph.outTarget(i);
+        if (!visited.get(target)) {
+          visited.set(target);
+          queue.enqueue(target);
+        }
+      }
+      return current;
+    }
+  }
+
+  /** A depth first search, where each vertex is marked when it is taken off the stack. */
+  private static class DepthFirst<T> extends TraversalIterator<T> {
+    private final IntStack stack = new IntStack();
+
+    DepthFirst(
+        CompactGraph<T> graph, int[] roots, GraphCounters counters, GraphEvents.Search event) {
+      super(graph, roots, counters, event);
+    }
+
+    @Override
+    protected int advance() {
+      while (true) {
+        if (stack.isEmpty()) {
+          int root = nextUnvisitedRoot();
+          if (root < 0) {
+            return -1;
+          }
+          stack.push(root);
+        }
+
+        int current = stack.pop();
+        if (visited.get(current)) {
+          continue;
+        }
+        visited.set(current);
+
+        // Push the neighbours from the last to the first, so the first is searched first.
+        for (int i = graph.outEnd(current) - 1; i >= graph.outStart(current); i--) {
+          int target = graph.outTarget(i);
+          if (!visited.get(target)) {
+            stack.push(target);
+          }
+        }
+        return current;
+      }
+    }
+  }
+}
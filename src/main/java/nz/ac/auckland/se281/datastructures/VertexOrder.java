@@ -0,0 +1,103 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The order that the verticies of a graph are kept in. A graph gives its verticies ids in this
+ * order once, when it is built, so the roots, the neighbours of each vertex and every search
+ * follow it without comparing verticies again.
+ *
+ * @param <T> The type of each vertex.
+ */
+public abstract class VertexOrder<T> {
+
+  /**
+   * It returns the order of the numbers that the names of the verticies are, such as "2" before
+   * "10". Each name is parsed once. Names that are not whole numbers, such as host names, come
+   * after every number in text order.
+   *
+   * @param <T> The type of each vertex.
+   * @return the numerical order.
+   */
+  public static <T> VertexOrder<T> numerical() {
+    return new VertexOrder<T>() {
+      @Override
+      void sort(Object[] verticies) {
+        int n = verticies.length;
+        String[] names = new String[n];
+        boolean[] isNumber = new boolean[n];
+        long[] keys = new long[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+          names[i] = verticies[i].toString();
+          isNumber[i] = NumericalComparator.isNumber(names[i]);
+          keys[i] = isNumber[i] ? Long.parseLong(names[i]) : 0;
+          order[i] = i;
+        }
+
+        Arrays.sort(
+            order,
+            (i, j) ->
+                NumericalComparator.compare(
+                    names[i], isNumber[i], keys[i], names[j], isNumber[j], keys[j]));
+
+        Object[] sorted = new Object[n];
+        for (int i = 0; i < n; i++) {
+          sorted[i] = verticies[order[i]];
+        }
+        System.arraycopy(sorted, 0, verticies, 0, n);
+      }
+    };
+  }
+
+  /**
+   * It returns the text order of the names of the verticies, such as "10" before "2".
+   *
+   * @param <T> The type of each vertex.
+   * @return the lexical order.
+   */
+  public static <T> VertexOrder<T> lexical() {
+    return custom(Comparator.comparing(Object::toString));
+  }
+
+  /**
+   * It returns the order that the verticies were first given in, with the set of verticies first
+   * and then the ends of each edge.
+   *
+   * @param <T> The type of each vertex.
+   * @return the insertion order.
+   */
+  public static <T> VertexOrder<T> insertion() {
+    return new VertexOrder<T>() {
+      @Override
+      void sort(Object[] verticies) {
+        // The verticies are already in the order they were given in.
+      }
+    };
+  }
+
+  /**
+   * It returns the order of a comparator.
+   *
+   * @param <T> The type of each vertex.
+   * @param comparator the comparator to order the verticies with.
+   * @return the order of the comparator.
+   */
+  public static <T> VertexOrder<T> custom(Comparator<? super T> comparator) {
+    return new VertexOrder<T>() {
+      @Override
+      @SuppressWarnings("unchecked")
+      void sort(Object[] verticies) {
+        Arrays.sort(verticies, (o1, o2) -> comparator.compare((T) o1, (T) o2));
+      }
+    };
+  }
+
+  /**
+   * It sorts the verticies into this order.
+   *
+   * @param verticies the verticies, in the order they were first given in.
+   */
+  abstract void sort(Object[] verticies);
+}
@@ -1,7 +1,29 @@
 package nz.ac.auckland.se281;
 
 import static nz.ac.auckland.se281.Command.*;
-
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import nz.ac.auckland.se281.datastructures.Edge;
+import nz.ac.auckland.se281.datastructures.Graph;
+import nz.ac.auckland.se281.datastructures.NumericalComparator;
+import nz.ac.auckland.se281.datastructures.Traversal;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -519,5 +541,569 @@ public class MainTest {
       assertContains("Successfully opened graph from file f.txt");
       assertContains("[0]");
     }
+
+    // The streaming loader reads the same graphs as the parser
+    @Test
+    public void TY_G_streaming_loader_RDFS() throws Exception {
+      runCommands(SET_LOADER, "streaming", OPEN_FILE, "g.txt", GRAPH_SEARCH_RDFS);
+      assertContains("Files will be opened with the STREAMING loader");
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("[1, 3, 5, 7, 6, 2, 4, 10, 8, 9, 11, 12]");
+    }
+
+    @Test
+    public void TY_C_streaming_loader_equivalence_class_1() throws Exception {
+      runCommands(SET_LOADER, "streaming", OPEN_FILE, "c.txt", COMPUTE_EQUIVALENCE, 1);
+      assertContains("Successfully opened graph from file c.txt");
+      assertContains("[1, 2, 3]");
+    }
+
+    @Test
+    public void TY_A_streaming_loader_list() throws Exception {
+      runCommands(SET_LOADER, "streaming", OPEN_FILE, "a.txt", LIST_VERTICIES_EDGES);
+      assertContains("Successfully opened graph from file a.txt");
+      assertContains("\t0 -> 1" + NEW_LINE + "\t0 -> 2" + NEW_LINE + "\t1 -> 3");
+    }
+
+    // Edges are listed in file order, and one that is removed and added again moves to the end
+    @Test
+    public void TY_C_list_file_order_after_changes() throws Exception {
+      for (final String loader : new String[] {"streaming", "mapped"}) {
+        runCommands(
+            SET_LOADER,
+            loader,
+            OPEN_FILE,
+            "c.txt",
+            REMOVE_EDGE,
+            "2 1",
+            ADD_EDGE,
+            "2 1",
+            LIST_VERTICIES_EDGES);
+      }
+      final String order = "0 -> 0,2 -> 2,2 -> 3,1 -> 2,3 -> 1,1 -> 3,3 -> 3,1 -> 1,3 -> 2,2 -> 1";
+      final String edges = "\t" + order.replace(",", NEW_LINE + "\t");
+      assertEquals(3, getCaptureOut().split(edges, -1).length);
+      assertContains("\t0" + NEW_LINE + "\t2" + NEW_LINE + "\t1" + NEW_LINE + "\t3");
+    }
+
+    // A file that is not a graph is reported by every loader, rather than ending the program
+    @Test
+    public void TY_C_open_file_not_a_graph() throws Exception {
+      final Path file = Path.of("testcases", "not-a-graph.txt");
+      try {
+        Files.writeString(file, "digraph g {" + NEW_LINE + "  0 -> ;" + NEW_LINE + "}");
+        for (final String loader : new String[] {"parser", "streaming", "mapped"}) {
+          runCommands(SET_LOADER, loader, OPEN_FILE, "not-a-graph.txt", INFO);
+        }
+        assertDoesNotContain("Successfully opened graph");
+        assertContains("Error: file 'not-a-graph.txt' could not be read as a graph");
+        assertContains("Error: no valid file open");
+        assertEquals(
+            3, getCaptureOut().split("could not be read as a graph", -1).length - 1);
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+
+    @Test
+    public void TY_H_mapped_loader_IBFS() throws Exception {
+      runCommands(SET_LOADER, "mapped", OPEN_FILE, "h.txt", GRAPH_SEARCH_IBFS);
+      assertContains("Files will be opened with the MAPPED loader");
+      assertContains("Successfully opened graph from file h.txt");
+      assertContains(
+          "[0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23,"
+              + " 24]");
+    }
+
+    @Test
+    public void TY_mapped_loader_file_not_found() throws Exception {
+      runCommands(SET_LOADER, "mapped", OPEN_FILE, "missing.txt");
+      assertContains("Error: file 'missing.txt' not found in `testcases` folder");
+    }
+
+    @Test
+    public void TY_unknown_loader() throws Exception {
+      runCommands(SET_LOADER, "antlr");
+      assertContains(
+          "Error: loader 'ANTLR' not found, choose one of [PARSER, STREAMING, MAPPED, SNAPSHOT]");
+    }
+
+    // Verticies that are not numbers, such as host names, come after the numbers
+    @Test
+    public void TY_J_host_names_roots() throws Exception {
+      runCommands(OPEN_FILE, "j.txt", LIST_ROOT_VERTICIES);
+      assertContains("Successfully opened graph from file j.txt");
+      assertContains("[2]");
+    }
+
+    @Test
+    public void TY_J_host_names_IBFS() throws Exception {
+      runCommands(OPEN_FILE, "j.txt", GRAPH_SEARCH_IBFS);
+      assertContains("Successfully opened graph from file j.txt");
+      assertContains("[2, 10, web_a, web_b, db]");
+    }
+
+    // Names of the same number are different verticies, so they are kept in text order
+    @Test
+    public void TY_numbers_with_the_same_value() throws Exception {
+      final Set<String> verticies = new LinkedHashSet<>(List.of("1", "2", "01", "+1"));
+      final Set<String> reversed = new LinkedHashSet<>(List.of("+1", "01", "2", "1"));
+      final Set<Edge<String>> edges = new HashSet<>();
+      for (final String vertex : List.of("1", "01", "+1")) {
+        edges.add(new Edge<>(vertex, "2"));
+      }
+      assertEquals("[+1, 01, 1]", new Graph<>(verticies, edges).getRoots().toString());
+      assertEquals("[+1, 01, 1]", new Graph<>(reversed, edges).getRoots().toString());
+      assertTrue(new NumericalComparator().compare("01", "1") < 0);
+    }
+
+    // The parallel search groups the verticies by their distance from the roots
+    @Test
+    public void TY_G_parallel_BFS_levels() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", GRAPH_SEARCH_PBFS);
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("[[1], [3, 5, 6, 9, 11], [2, 7, 12], [4, 8], [10]]");
+    }
+
+    @Test
+    public void TY_C_parallel_BFS_levels() throws Exception {
+      runCommands(OPEN_FILE, "c.txt", GRAPH_SEARCH_PBFS);
+      assertContains("Successfully opened graph from file c.txt");
+      assertContains("[[0, 1], [2, 3]]");
+    }
+
+    // Snapshots are read back with the same graph and properties
+    @Test
+    public void TY_C_snapshot_round_trip() throws Exception {
+      try {
+        runCommands(
+            OPEN_FILE,
+            "c.txt",
+            SAVE_SNAPSHOT,
+            "c.snapshot",
+            LOAD_SNAPSHOT,
+            "c.snapshot",
+            CHECK_EQUIVALENCE,
+            COMPUTE_EQUIVALENCE,
+            1,
+            LIST_ROOT_VERTICIES,
+            GRAPH_SEARCH_RDFS);
+        assertContains("Successfully saved graph snapshot to file c.snapshot");
+        assertContains("Successfully opened graph from file c.snapshot");
+        assertContains("The graph is an equivalence relation");
+        assertContains("[1, 2, 3]");
+        assertContains("[0, 1]");
+        assertContains("[0, 1, 2, 3]");
+      } finally {
+        Files.deleteIfExists(Path.of("testcases", "c.snapshot"));
+      }
+    }
+
+    // A snapshot that is changed keeps the same order as the file it was saved from
+    @Test
+    public void TY_A_snapshot_add_edge_matches_file() throws Exception {
+      final Object[] changes = {
+        ADD_EDGE, 9, 3, ADD_EDGE, 7, 2, LIST_ROOT_VERTICIES, GRAPH_SEARCH_IBFS, GRAPH_SEARCH_IDFS
+      };
+      try {
+        runCommands(OPEN_FILE, "a.txt", SAVE_SNAPSHOT, "a.snapshot");
+        final int fileStart = getCaptureOut().length();
+        runCommands(concat(new Object[] {OPEN_FILE, "a.txt"}, changes));
+        final int snapshotStart = getCaptureOut().length();
+        runCommands(concat(new Object[] {LOAD_SNAPSHOT, "a.snapshot"}, changes));
+
+        final String fromFile = getCaptureOut().substring(fileStart, snapshotStart);
+        final String fromSnapshot = getCaptureOut().substring(snapshotStart);
+        assertContains("[0, 7, 9]");
+        assertContains("[0, 1, 2, 3, 4, 5, 7, 9]");
+        assertEquals(
+            fromFile.substring(fromFile.indexOf("Added edge")),
+            fromSnapshot.substring(fromSnapshot.indexOf("Added edge")));
+      } finally {
+        Files.deleteIfExists(Path.of("testcases", "a.snapshot"));
+      }
+    }
+
+    private static Object[] concat(final Object[] first, final Object[] second) {
+      final Object[] both = Arrays.copyOf(first, first.length + second.length);
+      System.arraycopy(second, 0, both, first.length, second.length);
+      return both;
+    }
+
+    // A snapshot with an id or offset out of range is reported rather than read
+    @Test
+    public void TY_C_load_snapshot_corrupt() throws Exception {
+      final Path file = Path.of("testcases", "c.snapshot");
+      try {
+        runCommands(OPEN_FILE, "c.txt", SAVE_SNAPSHOT, "c.snapshot");
+
+        // The offset of the second name comes straight after the seven ints of the header.
+        final byte[] bytes = Files.readAllBytes(file);
+        bytes[7 * Integer.BYTES + Integer.BYTES] = 0x7F;
+        Files.write(file, bytes);
+
+        runCommands(LOAD_SNAPSHOT, "c.snapshot", INFO);
+        assertContains("Error: file 'c.snapshot' is not a valid graph snapshot");
+        assertContains("Error: no valid file open");
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+
+    // In-neighbour rows that disagree with the out-neighbour rows are found again from them
+    @Test
+    public void TY_A_load_snapshot_in_rows_rebuilt() throws Exception {
+      final Path file = Path.of("testcases", "a.snapshot");
+      try {
+        runCommands(OPEN_FILE, "a.txt", SAVE_SNAPSHOT, "a.snapshot");
+
+        // The in-rows come after the header, 7 name offsets, 6 names, 7 out-offsets and 5 edges.
+        // Vertex 1 is given no in-neighbours, and vertex 2 is given both 0 and 1.
+        final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        final int inOffsets = (7 + 7 + 7 + 5) * Integer.BYTES + 6;
+        bytes.putInt(inOffsets + 2 * Integer.BYTES, 0);
+        bytes.putInt(inOffsets + 7 * Integer.BYTES + Integer.BYTES, 1);
+        Files.write(file, bytes.array());
+
+        runCommands(LOAD_SNAPSHOT, "a.snapshot", ANALYZE);
+        assertContains("Successfully opened graph from file a.snapshot");
+        assertContains("In-degree: min 0, max 1");
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+
+    @Test
+    public void TY_A_load_snapshot_not_a_snapshot() throws Exception {
+      runCommands(LOAD_SNAPSHOT, "a.txt", INFO);
+      assertContains("Error: file 'a.txt' is not a valid graph snapshot");
+      assertContains("Error: no valid file open");
+    }
+
+    // Every property in one report
+    @Test
+    public void TY_B_analyze() throws Exception {
+      runCommands(OPEN_FILE, "b.txt", ANALYZE);
+      assertContains("Successfully opened graph from file b.txt");
+      assertContains("The graph has 7 verticies and 17 edges (6 with self-loops)");
+      assertContains("The graph is NOT reflexive");
+      assertContains("The graph is NOT symmetric");
+      assertContains("The graph is NOT antisymmetric");
+      assertContains("The graph is NOT transitive");
+      assertContains("The graph is NOT an equivalence relation");
+      assertContains("Root verticies: [6]");
+      assertContains("In-degree: min 0, max 3, average 2.43");
+      assertContains("Out-degree: min 1, max 3, average 2.43");
+    }
+
+    @Test
+    public void TY_C_analyze() throws Exception {
+      runCommands(OPEN_FILE, "c.txt", ANALYZE);
+      assertContains("Successfully opened graph from file c.txt");
+      assertContains("The graph has 4 verticies and 10 edges (4 with self-loops)");
+      assertContains("The graph is reflexive");
+      assertContains("The graph is symmetric");
+      assertContains("The graph is NOT antisymmetric");
+      assertContains("The graph is transitive");
+      assertContains("The graph is an equivalence relation");
+      assertContains("Root verticies: [0, 1]");
+    }
+
+    // Changing the edges updates the properties without reopening the file
+    @Test
+    public void TY_C_add_remove_edge() throws Exception {
+      runCommands(
+          OPEN_FILE,
+          "c.txt",
+          ADD_EDGE,
+          "0 1",
+          CHECK_SYMMETRY,
+          ADD_EDGE,
+          "0 1",
+          REMOVE_EDGE,
+          "0 1",
+          CHECK_EQUIVALENCE,
+          REMOVE_EDGE,
+          "0 1");
+      assertContains("Added edge 0 -> 1");
+      assertContains("The graph is NOT symmetric");
+      assertContains("Error: edge 0 -> 1 is already in the graph");
+      assertContains("Removed edge 0 -> 1");
+      assertContains("The graph is an equivalence relation");
+      assertContains("Error: edge 0 -> 1 is not in the graph");
+    }
+
+    @Test
+    public void TY_C_add_edge_new_root() throws Exception {
+      runCommands(
+          OPEN_FILE, "c.txt", ADD_EDGE, "4 0", LIST_VERTICIES_EDGES, LIST_ROOT_VERTICIES);
+      assertContains("Added edge 4 -> 0");
+      assertContains("4 -> 0");
+      assertContains("[4]");
+    }
+
+    // A chain far deeper than the default stack is searched recursively without overflowing
+    @Test
+    public void TY_generated_deep_chain_RDFS() throws Exception {
+      final Path file = Path.of("testcases", "generated", "deep-chain.snapshot");
+      try {
+        Files.createDirectories(file.getParent());
+        new GraphGenerator(GraphGenerator.Shape.CHAIN, 150_000, 1, 1).writeSnapshot(file);
+        runCommands(LOAD_SNAPSHOT, "generated/deep-chain.snapshot", GRAPH_SEARCH_RDFS);
+        assertContains("[0, 1, 2, 3, ");
+        assertContains("149998, 149999]");
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+
+    // The stack of the recursive searches can be set, and is sized from the graph by default
+    @Test
+    public void TY_generated_deep_chain_stack_size() throws Exception {
+      final Graph<String> chain =
+          new GraphGenerator(GraphGenerator.Shape.CHAIN, 150_000, 1, 1).toGraph();
+      chain.setRecursionStackSize(1 << 18);
+      try {
+        chain.recursiveDepthFirstSearch();
+        fail("A stack of 256 KB should not fit 150000 levels of recursion");
+      } catch (final StackOverflowError e) {
+        // The error is thrown again on the thread that asked for the search.
+      }
+
+      chain.setRecursionStackSize(0);
+      assertEquals(150_000, chain.recursiveDepthFirstSearch().size());
+    }
+
+    // The lazy recursive searches visit the same order as the lists, and can be stopped early
+    @Test
+    public void TY_generated_recursive_traversal() throws Exception {
+      final Graph<String> graph =
+          new GraphGenerator(GraphGenerator.Shape.POWER_LAW, 10_000, 3, 1).toGraph();
+      final List<String> breadthFirst = new ArrayList<>();
+      graph.traverse(Traversal.RECURSIVE_BREADTH_FIRST).forEachRemaining(breadthFirst::add);
+      assertEquals(graph.recursiveBreadthFirstSearch(), breadthFirst);
+
+      final List<String> depthFirst = new ArrayList<>();
+      graph.traverse(Traversal.RECURSIVE_DEPTH_FIRST).forEachRemaining(depthFirst::add);
+      assertEquals(graph.recursiveDepthFirstSearch(), depthFirst);
+
+      final Iterator<String> first = graph.traverse(Traversal.RECURSIVE_DEPTH_FIRST);
+      assertEquals(depthFirst.get(0), first.next());
+    }
+
+    // Generated graphs have the properties that their sidecar expects
+    @Test
+    public void TY_generated_power_law() throws Exception {
+      assertMatchesSidecar(GraphGenerator.Shape.POWER_LAW, 200, 3, OPEN_FILE, "txt");
+    }
+
+    @Test
+    public void TY_generated_equivalence_blocks_snapshot() throws Exception {
+      assertMatchesSidecar(
+          GraphGenerator.Shape.EQUIVALENCE_BLOCKS, 30, 4, LOAD_SNAPSHOT, "snapshot");
+    }
+
+    @Test
+    public void TY_generated_clique() throws Exception {
+      assertMatchesSidecar(GraphGenerator.Shape.CLIQUE, 20, 1, OPEN_FILE, "txt");
+    }
+
+    // Graphs sized by their edges have about that many, whatever their shape
+    @Test
+    public void TY_generated_with_edges() throws Exception {
+      for (final GraphGenerator.Shape shape : GraphGenerator.Shape.values()) {
+        final int edges = GraphGenerator.withEdges(shape, 1000, 4, 1).getEdges();
+        assertTrue(shape + " has " + edges + " edges", edges > 900 && edges <= 1000);
+      }
+    }
+
+    private void assertMatchesSidecar(
+        GraphGenerator.Shape shape, int verticies, int degree, Command open, String extension)
+        throws Exception {
+      final Path folder = Path.of("testcases", "generated");
+      final String name = shape.toString().toLowerCase();
+      try {
+        Files.createDirectories(folder);
+        final GraphGenerator generator = new GraphGenerator(shape, verticies, degree, 1);
+        generator.writeDot(folder.resolve(name + ".txt"));
+        generator.writeSnapshot(folder.resolve(name + ".snapshot"));
+        generator.writeExpected(folder.resolve(name + ".properties"));
+
+        final Properties expected = new Properties();
+        try (Reader reader = Files.newBufferedReader(folder.resolve(name + ".properties"))) {
+          expected.load(reader);
+        }
+        runCommands(open, "generated/" + name + "." + extension, ANALYZE);
+
+        assertContains(
+            "The graph has "
+                + expected.getProperty("verticies")
+                + " verticies and "
+                + expected.getProperty("edges")
+                + " edges ("
+                + expected.getProperty("selfLoops")
+                + " with self-loops)");
+        assertContains(property(expected, "reflexive", "reflexive"));
+        assertContains(property(expected, "symmetric", "symmetric"));
+        assertContains(property(expected, "antiSymmetric", "antisymmetric"));
+        assertContains(property(expected, "transitive", "transitive"));
+        assertContains(property(expected, "equivalence", "an equivalence relation"));
+
+        // Only the first few roots are in the sidecar, so leave off the closing bracket.
+        final String roots = expected.getProperty("firstRoots");
+        assertContains("Root verticies: " + roots.substring(0, roots.length() - 1));
+      } finally {
+        for (final String extensionToDelete : new String[] {"txt", "snapshot", "properties"}) {
+          Files.deleteIfExists(folder.resolve(name + "." + extensionToDelete));
+        }
+      }
+    }
+
+    private String property(Properties expected, String key, String description) {
+      final boolean holds = Boolean.parseBoolean(expected.getProperty(key));
+      return "The graph is " + (holds ? "" : "NOT ") + description;
+    }
+
+    // Instrumented commands count the verticies and edges the search visits
+    @Test
+    public void TY_C_instrument_stats() throws Exception {
+      runCommands(STATS, INSTRUMENT, "on", OPEN_FILE, "c.txt", GRAPH_SEARCH_IBFS, STATS);
+      assertContains("Error: instrumentation is off, turn it on with INSTRUMENT ON");
+      assertContains("Instrumentation is on, every command will be measured");
+      assertContains("Command");
+      assertContains("Allocated (KB)");
+      assertContains("Verticies");
+      assertContains("Edges");
+
+      // The counters depend on how the search is done, so only check that each one was measured.
+      String row = null;
+      for (final String line : getCaptureOut().split("\\R")) {
+        if (line.startsWith("GRAPH_SEARCH_IBFS ")) {
+          row = line;
+        }
+      }
+      assertTrue(row != null);
+      final String[] columns = row.trim().split("\\s+");
+      assertEquals(7, columns.length);
+      assertEquals("1", columns[1]);
+      for (int i = 2; i < columns.length; i++) {
+        assertTrue(columns[i], Double.parseDouble(columns[i]) >= 0);
+      }
+    }
+
+    @Test
+    public void TY_C_export_stats() throws Exception {
+      final Path file = Path.of("testcases", "generated", "stats.json");
+      try {
+        Files.createDirectories(file.getParent());
+        runCommands(
+            INSTRUMENT, "ON", OPEN_FILE, "c.txt", CHECK_SYMMETRY, EXPORT_STATS, file.toString());
+        assertContains("Successfully exported command statistics to file " + file);
+        final String json = Files.readString(file);
+        assertTrue(json.contains("{\"command\": \"CHECK_SYMMETRY\", \"arguments\": []"));
+        assertTrue(json.contains("\"arguments\": [\"c.txt\"]"));
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+
+    @Test
+    public void TY_C_flight_recorder_events() throws Exception {
+      final Path file = Path.of("testcases", "generated", "events.jfr");
+      final String[] names = {
+        "nz.ac.auckland.se281.GraphLoad",
+        "nz.ac.auckland.se281.PropertyCheck",
+        "nz.ac.auckland.se281.EquivalenceLookup",
+        "nz.ac.auckland.se281.Search"
+      };
+      try (Recording recording = new Recording()) {
+        for (final String name : names) {
+          recording.enable(name).withoutThreshold();
+        }
+        recording.start();
+        runCommands(
+            OPEN_FILE, "c.txt", CHECK_TRANSITIVITY, COMPUTE_EQUIVALENCE, "1", GRAPH_SEARCH_IBFS);
+        recording.stop();
+        Files.createDirectories(file.getParent());
+        recording.dump(file);
+
+        final Set<String> recorded = new HashSet<>();
+        for (final RecordedEvent event : RecordingFile.readAllEvents(file)) {
+          recorded.add(event.getEventType().getName());
+        }
+        for (final String name : names) {
+          assertTrue(name, recorded.contains(name));
+        }
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+
+    // A lazy search writes its event once, however many times it is asked for more verticies
+    @Test
+    public void TY_empty_traversal_event_once() throws Exception {
+      final Path file = Path.of("testcases", "generated", "empty.jfr");
+      try (Recording recording = new Recording()) {
+        recording.enable("nz.ac.auckland.se281.Search").withoutThreshold();
+        recording.start();
+        final Graph<String> empty = new Graph<String>(new HashSet<>(), new HashSet<>());
+        final Iterator<String> traversal = empty.traverse(Traversal.ITERATIVE_BREADTH_FIRST);
+        for (int i = 0; i < 3; i++) {
+          assertTrue(!traversal.hasNext());
+        }
+        recording.stop();
+        Files.createDirectories(file.getParent());
+        recording.dump(file);
+
+        int events = 0;
+        for (final RecordedEvent event : RecordingFile.readAllEvents(file)) {
+          if (event.getEventType().getName().equals("nz.ac.auckland.se281.Search")) {
+            events++;
+          }
+        }
+        assertEquals(1, events);
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+
+    @Test
+    public void TY_batch_matches_interactive() throws Exception {
+      final Path file = Path.of("testcases", "generated", "batch.txt");
+      try {
+        Files.createDirectories(file.getParent());
+        Main.main(
+            new String[] {
+              "--commands", "CHECK_TRANSITIVITY;COMPUTE_EQUIVALENCE 1",
+              "--threads", "2",
+              "--output", file.toString(),
+              "a.txt", "c.txt"
+            });
+        final String batch = Files.readString(file);
+        assertTrue(batch.indexOf("==> a.txt <==") < batch.indexOf("==> c.txt <=="));
+
+        runCommands(OPEN_FILE, "a.txt", CHECK_TRANSITIVITY, COMPUTE_EQUIVALENCE, "1");
+        runCommands(OPEN_FILE, "c.txt", CHECK_TRANSITIVITY, COMPUTE_EQUIVALENCE, "1");
+        for (final String line : batch.split(NEW_LINE)) {
+          if (!line.startsWith("==>")) {
+            assertContains(line);
+          }
+        }
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+
+    // A batch written to the console leaves it open for whatever is printed next
+    @Test
+    public void TY_batch_to_console() throws Exception {
+      Main.main(new String[] {"--commands", "LIST_ROOT_VERTICIES", "a.txt", "missing.txt"});
+      assertContains("==> a.txt <==" + NEW_LINE + "Successfully opened graph from file a.txt");
+      assertContains("==> missing.txt <==");
+
+      runCommands(OPEN_FILE, "c.txt", LIST_ROOT_VERTICIES);
+      assertContains("Successfully opened graph from file c.txt");
+      assertContains("[0, 1]");
+    }
   }
 }